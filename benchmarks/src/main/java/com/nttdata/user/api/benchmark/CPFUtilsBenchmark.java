@@ -0,0 +1,78 @@
+package com.nttdata.user.api.benchmark;
+
+import com.nttdata.user.api.exception.CPFUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validação de CPF: implementação atual contra a anterior (regex + substrings).
+ * Rodar com {@code -prof gc} para comparar a alocação por operação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CPFUtilsBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+
+    @Param({"52998224725", "529.982.247-25", "12345678900"})
+    public String cpf;
+
+    private String[] batch;
+    private boolean[] results;
+
+    @Setup
+    public void setUp() {
+        String[] samples = {"52998224725", "529.982.247-25", "12345678900", "596.324.180-42", "11144477735"};
+        batch = new String[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch[i] = samples[i % samples.length];
+        }
+        results = new boolean[BATCH_SIZE];
+    }
+
+    @Benchmark
+    public boolean current() {
+        return CPFUtils.isValidCPF(cpf);
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        return LegacyCPFUtils.isValidCPF(cpf);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int currentBatch() {
+        return CPFUtils.validateAll(batch, results);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int legacyBatch() {
+        int valid = 0;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            boolean result = LegacyCPFUtils.isValidCPF(batch[i]);
+            results[i] = result;
+            if (result) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+}
@@ -0,0 +1,37 @@
+package com.nttdata.user.api.benchmark;
+
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.nttdata.user.api.repository.UserCredentials;
+import com.nttdata.user.api.repository.UserLookupRepository;
+
+import java.util.Optional;
+
+/**
+ * {@link UserLookupRepository} respondendo a partir do {@link InMemoryUserRepository}.
+ */
+final class InMemoryUserLookupRepository extends UserLookupRepository {
+
+    private final InMemoryUserRepository userRepository;
+
+    InMemoryUserLookupRepository(InMemoryUserRepository userRepository) {
+        super(new AbstractAmazonDynamoDB() {
+        });
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public boolean existsByCpf(String cpf) {
+        return userRepository.findByCpf(cpf).isPresent();
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return userRepository.findByEmail(email).isPresent();
+    }
+
+    @Override
+    public Optional<UserCredentials> findCredentialsByEmail(String email) {
+        return userRepository.findByEmail(email)
+            .map(user -> new UserCredentials(user.getId(), user.getSenha()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.nttdata.user.api.benchmark;
+
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.exception.UserAlreadyExistsException;
+import com.nttdata.user.api.repository.UserRegistrationRepository;
+
+/**
+ * {@link UserRegistrationRepository} sobre o {@link InMemoryUserRepository}; o
+ * cliente passado à superclasse só serve para montar o modelo da tabela.
+ */
+final class InMemoryUserRegistrationRepository extends UserRegistrationRepository {
+
+    private final InMemoryUserRepository userRepository;
+
+    InMemoryUserRegistrationRepository(InMemoryUserRepository userRepository) {
+        super(new AbstractAmazonDynamoDB() {
+        }, DynamoDBMapperConfig.DEFAULT);
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public UserEntity create(UserEntity user) {
+        if (userRepository.findByCpf(user.getCpf()).isPresent()) {
+            throw new UserAlreadyExistsException(UserAlreadyExistsException.CPF, "CPF já cadastrado");
+        }
+        if (user.getEmail() != null && userRepository.findByEmail(user.getEmail()).isPresent()) {
+            throw new UserAlreadyExistsException(UserAlreadyExistsException.EMAIL, "E-mail já cadastrado");
+        }
+        return userRepository.save(user);
+    }
+}
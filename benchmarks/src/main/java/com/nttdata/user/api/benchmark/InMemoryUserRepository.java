@@ -0,0 +1,113 @@
+package com.nttdata.user.api.benchmark;
+
+import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link UserRepository} em memória, para medir o serviço sem I/O.
+ */
+final class InMemoryUserRepository implements UserRepository {
+
+    private final Map<String, UserEntity> byId = new ConcurrentHashMap<>();
+    private final Map<String, UserEntity> byEmail = new ConcurrentHashMap<>();
+    private final Map<String, UserEntity> byCpf = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<UserEntity> findByCpf(String cpf) {
+        return Optional.ofNullable(byCpf.get(cpf));
+    }
+
+    @Override
+    public Optional<UserEntity> findByEmail(String email) {
+        return Optional.ofNullable(byEmail.get(email));
+    }
+
+    @Override
+    public <S extends UserEntity> S save(S entity) {
+        if (entity.getId() == null) {
+            entity.setId(UUID.randomUUID().toString());
+        }
+        byId.put(entity.getId(), entity);
+        if (entity.getEmail() != null) {
+            byEmail.put(entity.getEmail(), entity);
+        }
+        if (entity.getCpf() != null) {
+            byCpf.put(entity.getCpf(), entity);
+        }
+        return entity;
+    }
+
+    @Override
+    public <S extends UserEntity> Iterable<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public Optional<UserEntity> findById(Long id) {
+        return Optional.ofNullable(byId.get(String.valueOf(id)));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return byId.containsKey(String.valueOf(id));
+    }
+
+    @Override
+    public Iterable<UserEntity> findAll() {
+        return new ArrayList<>(byId.values());
+    }
+
+    @Override
+    public Iterable<UserEntity> findAllById(Iterable<Long> ids) {
+        List<UserEntity> found = new ArrayList<>();
+        ids.forEach(id -> findById(id).ifPresent(found::add));
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return byId.size();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        findById(id).ifPresent(this::delete);
+    }
+
+    @Override
+    public void delete(UserEntity entity) {
+        byId.remove(entity.getId());
+        if (entity.getEmail() != null) {
+            byEmail.remove(entity.getEmail());
+        }
+        if (entity.getCpf() != null) {
+            byCpf.remove(entity.getCpf());
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends UserEntity> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        byId.clear();
+        byEmail.clear();
+        byCpf.clear();
+    }
+}
@@ -0,0 +1,72 @@
+package com.nttdata.user.api.benchmark;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.nttdata.user.api.data.dto.UserDto;
+import com.nttdata.user.api.data.dto.UserDtoType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o {@link UserDto} em JSON pelo serializador por reflexão (anotações
+ * desligadas), em JSON pelo serializador pré-codificado e em CBOR. O tamanho em
+ * bytes de cada formato é impresso no setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDtoFormatBenchmark {
+
+    @Param({"json-reflection", "json", "cbor"})
+    private String format;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private UserDto userDto;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = switch (format) {
+            case "json-reflection" -> JsonMapper.builder().disable(MapperFeature.USE_ANNOTATIONS).build();
+            case "json" -> new ObjectMapper();
+            case "cbor" -> new CBORMapper();
+            default -> throw new IllegalArgumentException("Formato desconhecido: " + format);
+        };
+        writer = objectMapper.writerFor(UserDto.class);
+        reader = objectMapper.readerFor(UserDto.class);
+        userDto = new UserDto("0b7c3c0e-5f7e-4a44-9d51-6f1d1c3c2a10", "Fernanda", "52998224725",
+            "fernanda@example.com", "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1nX3bS9YbP8Xk2bC1xJxJ2e", UserDtoType.FORNECEDOR);
+        encoded = writer.writeValueAsBytes(userDto);
+        System.out.println("UserDto em " + format + ": " + encoded.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(userDto);
+    }
+
+    @Benchmark
+    public UserDto deserialize() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
@@ -0,0 +1,72 @@
+package com.nttdata.user.api.benchmark;
+
+import com.nttdata.user.api.data.dto.UserDto;
+import com.nttdata.user.api.data.dto.UserDtoType;
+import com.nttdata.user.api.data.dto.UserPublicDto;
+import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.data.entity.UserEntityType;
+import com.nttdata.user.api.data.mapper.UserMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por conversão; rodar com {@code -prof gc} para ver as alocações por operação
+ * ({@code gc.alloc.rate.norm}), que devem ser só os objetos de saída.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private UserMapper userMapper;
+    private UserEntity userEntity;
+    private UserDto userDto;
+    private List<UserEntity> page;
+
+    @Setup
+    public void setUp() {
+        userMapper = new UserMapper();
+        userEntity = new UserEntity("1", "Fernanda", "52998224725", "fernanda@example.com", "$2a$10$hash", UserEntityType.FORNECEDOR);
+        userDto = new UserDto("1", "Fernanda", "52998224725", "fernanda@example.com", "senha", UserDtoType.FORNECEDOR);
+        page = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) {
+            page.add(new UserEntity(String.valueOf(i), "Fernanda", "52998224725", "fernanda@example.com", "$2a$10$hash",
+                UserEntityType.values()[i % UserEntityType.values().length]));
+        }
+    }
+
+    @Benchmark
+    public UserDto toDto() {
+        return userMapper.toDto(userEntity);
+    }
+
+    @Benchmark
+    public UserEntity toEntity() {
+        return userMapper.toEntity(userDto);
+    }
+
+    @Benchmark
+    public UserPublicDto toPublicDto() {
+        return userMapper.toPublicDto(userEntity);
+    }
+
+    @Benchmark
+    public List<UserPublicDto> toPublicDtosPage() {
+        return userMapper.toPublicDtos(page);
+    }
+}
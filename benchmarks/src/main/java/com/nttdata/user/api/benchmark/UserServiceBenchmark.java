@@ -0,0 +1,95 @@
+package com.nttdata.user.api.benchmark;
+
+import com.nttdata.user.api.data.dto.UserDto;
+import com.nttdata.user.api.data.dto.UserDtoType;
+import com.nttdata.user.api.data.mapper.UserMapper;
+import com.nttdata.user.api.fixture.Cpfs;
+import com.nttdata.user.api.service.PasswordHasher;
+import com.nttdata.user.api.service.RegisteredUserFilter;
+import com.nttdata.user.api.service.UserMetrics;
+import com.nttdata.user.api.service.UserServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caminhos completos de cadastro e login do {@link UserServiceImpl} sobre um
+ * repositório em memória. Com {@code strength=4} o resultado mostra o
+ * overhead fora do BCrypt; com 10, o custo real em produção.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"4", "10"})
+    public int strength;
+
+    private final AtomicLong cpfSequence = new AtomicLong(100_000_000L);
+
+    private UserServiceImpl userService;
+    private InMemoryUserRepository userRepository;
+    private PasswordHasher passwordHasher;
+    private UserDto loginRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        userRepository = new InMemoryUserRepository();
+        passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(strength), meterRegistry, 0, 1024, 60_000);
+        userService = new UserServiceImpl();
+        inject("userRepository", userRepository);
+        inject("userRegistrationRepository", new InMemoryUserRegistrationRepository(userRepository));
+        inject("userLookupRepository", new InMemoryUserLookupRepository(userRepository));
+        inject("userMapper", new UserMapper());
+        inject("passwordHasher", passwordHasher);
+        inject("registeredUserFilter", new RegisteredUserFilter(null, meterRegistry, false, 1, 0.01, 1));
+        inject("userMetrics", new UserMetrics(meterRegistry));
+
+        userService.registerUser(new UserDto(null, "Login", Cpfs.valid(1), "login@example.com", "senha", UserDtoType.CLIENTE));
+        loginRequest = new UserDto(null, null, null, "login@example.com", "senha", null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Benchmark
+    public UserDto registerUser() {
+        long sequence = cpfSequence.incrementAndGet();
+        return userService.registerUser(new UserDto(null, "Usuário", Cpfs.valid(sequence),
+            "user" + sequence + "@example.com", "senha", UserDtoType.CLIENTE));
+    }
+
+    @Benchmark
+    public boolean findByEmail() {
+        return userService.findByEmail(loginRequest);
+    }
+
+    private void inject(String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(UserServiceImpl.class, fieldName);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, userService, value);
+    }
+}
@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Compara o tempo de inicialização e a memória residente (RSS) da imagem atual
+# (Dockerfile) com a imagem AOT + CDS (Dockerfile.aot).
+#
+#   benchmarks/startup.sh [execuções] [limite de memória]
+#
+# Para cada imagem, sobe o container N vezes com o limite de memória e CPU dado, espera
+# /actuator/health responder e registra:
+#   - started_s: "Started ProjectApplication in X seconds" do log do Spring Boot
+#   - ready_ms:  do docker run até o health responder
+#   - rss_kb:    VmRSS do processo java logo após ficar pronto
+# O filtro de cadastrados fica desligado para que a varredura do DynamoDB não entre na
+# medição. A saída é CSV, para colar na descrição do PR junto com a máquina usada.
+set -euo pipefail
+
+RUNS=${1:-5}
+MEMORY=${2:-512m}
+CPUS=${CPUS:-1}
+PORT=${PORT:-18080}
+cd "$(dirname "$0")/.."
+
+JAR=target/project-0.0.1-SNAPSHOT.jar
+
+./mvnw -B -q package -DskipTests
+docker build -q -f Dockerfile --build-arg JAR_FILE="$JAR" -t user-api:jit . > /dev/null
+./mvnw -B -q -Paot package -DskipTests
+docker build -q -f Dockerfile.aot --build-arg JAR_FILE="$JAR" -t user-api:aot . > /dev/null
+
+measure() {
+    local image=$1 run=$2 container start ready started rss
+    start=$(date +%s%N)
+    container=$(docker run -d --memory "$MEMORY" --cpus "$CPUS" -p "$PORT:8080" \
+        -e USER_REGISTRY_FILTER_ENABLED=false "$image")
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        sleep 0.05
+    done
+    ready=$(( ($(date +%s%N) - start) / 1000000 ))
+    started=$(docker logs "$container" 2>&1 | sed -n 's/.*Started ProjectApplication in \([0-9.]*\) seconds.*/\1/p')
+    rss=$(docker exec "$container" sh -c 'grep VmRSS /proc/1/status' | awk '{print $2}')
+    docker rm -f "$container" > /dev/null
+    echo "$image,$run,$started,$ready,$rss"
+}
+
+echo "image,run,started_s,ready_ms,rss_kb"
+for image in user-api:jit user-api:aot; do
+    for run in $(seq 1 "$RUNS"); do
+        measure "$image" "$run"
+    done
+done
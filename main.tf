@@ -29,13 +29,51 @@ resource "aws_dynamodb_table" "user_table" {
         type = "S"
     }
 
+    attribute {
+        name = "cpf"
+        type = "S"
+    }
+
+    attribute {
+        name = "tipoShard"
+        type = "S"
+    }
+
+    # O login lê a senha e o DTO completo a partir deste índice.
     global_secondary_index {
         name               = "EmailIndex"
         hash_key           = "email"
         write_capacity     = 10
         read_capacity      = 10
+        projection_type    = "ALL"
+    }
+
+    # Usado apenas para verificar duplicidade de CPF no cadastro.
+    global_secondary_index {
+        name               = "CpfIndex"
+        hash_key           = "cpf"
+        write_capacity     = 10
+        read_capacity      = 10
+        projection_type    = "KEYS_ONLY"
+    }
+
+    # Listagem por tipo de usuário: partição "<TIPO>#<shard>" para não concentrar
+    # um tipo inteiro numa partição; ordenada por id para paginar por cursor.
+    global_secondary_index {
+        name               = "TipoUsuarioIndex"
+        hash_key           = "tipoShard"
+        range_key          = "id"
+        write_capacity     = 10
+        read_capacity      = 10
         projection_type    = "INCLUDE"
-        non_key_attributes = ["id"]
+        non_key_attributes = ["nome", "cpf", "email", "tipoUsuario"]
+    }
+
+    # Itens REVOKED#<token> da revogação de sessões expiram sozinhos; usuários e
+    # reservas não têm o atributo.
+    ttl {
+        attribute_name = "expiresAt"
+        enabled        = true
     }
 
     tags = {
@@ -0,0 +1,46 @@
+package com.nttdata.user.api.config;
+
+import com.nttdata.user.api.data.dto.UserDtoSerializer;
+import com.nttdata.user.api.data.dto.UserDtoTypeSerializer;
+import com.nttdata.user.api.data.dto.UserPublicDtoSerializer;
+import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.data.entity.UserEntityType;
+import com.nttdata.user.api.repository.UserCredentials;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Dicas para a imagem nativa (perfil {@code native}). O {@code DynamoDBMapper} do SDK v1
+ * descobre getters, setters e anotações da entidade por reflexão, e o cliente carrega
+ * endpoints e configurações padrão de arquivos JSON no classpath.
+ */
+@Configuration
+@ImportRuntimeHints(AotHintsConfig.UserApiRuntimeHints.class)
+public class AotHintsConfig {
+
+    static class UserApiRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection()
+                .registerType(UserEntity.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS)
+                .registerType(UserEntityType.class, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(UserCredentials.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(UserDtoSerializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .registerType(UserDtoTypeSerializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .registerType(UserPublicDtoSerializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources()
+                .registerPattern("com/amazonaws/partitions/endpoints.json")
+                .registerPattern("com/amazonaws/internal/config/awssdk_config_default.json")
+                .registerPattern("com/amazonaws/sdk/versionInfo.properties");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.nttdata.user.api.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nttdata.user.api.repository.UserCacheNames;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Caches de leitura na frente do {@code UserRepository}. O Caffeine usa
+ * W-TinyLFU para eviction; resultados negativos ("não encontrado") também são
+ * guardados, mas com um TTL menor para que um cadastro feito por outra
+ * instância apareça logo.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Value("${user.cache.maximum-size:100000}")
+    private long maximumSize;
+
+    @Value("${user.cache.ttl:5m}")
+    private Duration ttl;
+
+    @Value("${user.cache.negative-ttl:5s}")
+    private Duration negativeTtl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        for (String cacheName : List.of(UserCacheNames.BY_EMAIL, UserCacheNames.BY_CPF,
+            UserCacheNames.EXISTS_BY_EMAIL, UserCacheNames.EXISTS_BY_CPF, UserCacheNames.CREDENTIALS_BY_EMAIL)) {
+            cacheManager.registerCustomCache(cacheName, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new LookupExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .build());
+        }
+        return cacheManager;
+    }
+
+    private static final class LookupExpiry implements Expiry<Object, Object> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        private LookupExpiry(long ttlNanos, long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return isNegative(value) ? negativeTtlNanos : ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private static boolean isNegative(Object value) {
+            return value == NullValue.INSTANCE || Boolean.FALSE.equals(value);
+        }
+    }
+}
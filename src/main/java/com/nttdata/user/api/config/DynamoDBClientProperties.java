@@ -0,0 +1,43 @@
+package com.nttdata.user.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Pool HTTP, timeouts e retry do cliente {@code AmazonDynamoDB} (SDK v1).
+ */
+@Data
+@ConfigurationProperties(prefix = "amazon.dynamodb.client")
+public class DynamoDBClientProperties {
+
+    private int maxConnections = 200;
+
+    /** Tempo máximo de vida de uma conexão no pool; negativo desliga o limite. */
+    private Duration connectionTtl = Duration.ofMinutes(1);
+
+    private Duration connectionMaxIdle = Duration.ofSeconds(30);
+
+    /** Fecha em background as conexões ociosas além de {@link #connectionMaxIdle}. */
+    private boolean useReaper = true;
+
+    private boolean tcpKeepAlive = true;
+
+    private Duration validateAfterInactivity = Duration.ofSeconds(5);
+
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+
+    private Duration socketTimeout = Duration.ofSeconds(5);
+
+    private Duration requestTimeout = Duration.ofSeconds(5);
+
+    /** Limite para a chamada inteira, incluindo todas as tentativas. */
+    private Duration clientExecutionTimeout = Duration.ofSeconds(10);
+
+    private int maxErrorRetry = 3;
+
+    private Duration retryBaseDelay = Duration.ofMillis(25);
+
+    private Duration retryMaxBackoff = Duration.ofSeconds(1);
+}
@@ -1,9 +1,13 @@
 package com.nttdata.user.api.config;
 
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.retry.PredefinedBackoffStrategies;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+import com.amazonaws.retry.RetryPolicy;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
@@ -11,12 +15,14 @@ import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
 import io.micrometer.common.util.StringUtils;
 import org.socialsignin.spring.data.dynamodb.repository.config.EnableDynamoDBRepositories;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 @Configuration
+@EnableConfigurationProperties({DynamoDBClientProperties.class, DynamoDBThrottleProperties.class})
 @EnableDynamoDBRepositories
     (basePackages = "com.nttdata.user.api.repository")
 public class DynamoDBConfig {
@@ -33,21 +39,54 @@ public class DynamoDBConfig {
     @Value("${amazon.aws.region}")
     private String awsRegion;
 
+    @Value("${password.hashing.strength:10}")
+    private int passwordHashingStrength;
+
     @Primary
     @Bean
     public DynamoDBMapperConfig dynamoDBMapperConfig() {
         return DynamoDBMapperConfig.DEFAULT;
     }
     @Bean
-    public AmazonDynamoDB amazonDynamoDB() {
+    public AmazonDynamoDB amazonDynamoDB(DynamoDBClientProperties clientProperties,
+                                         DynamoDBPoolMetricsCollector poolMetricsCollector,
+                                         DynamoDBConsumedCapacityHandler consumedCapacityHandler,
+                                         DynamoDBThrottleHandler throttleHandler) {
         return AmazonDynamoDBClientBuilder
             .standard()
             .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(amazonDynamoDBEndpoint, awsRegion))
             .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials(amazonAWSAccessKey, amazonAWSSecretKey)))
+            .withClientConfiguration(clientConfiguration(clientProperties))
+            .withMetricsCollector(poolMetricsCollector)
+            // Nesta ordem: o limitador lê a capacidade consumida que o primeiro pede.
+            .withRequestHandlers(consumedCapacityHandler, throttleHandler)
             .build();
     }
+
+    static ClientConfiguration clientConfiguration(DynamoDBClientProperties properties) {
+        RetryPolicy retryPolicy = new RetryPolicy(
+            PredefinedRetryPolicies.DEFAULT_RETRY_CONDITION,
+            new PredefinedBackoffStrategies.FullJitterBackoffStrategy(
+                (int) properties.getRetryBaseDelay().toMillis(),
+                (int) properties.getRetryMaxBackoff().toMillis()),
+            properties.getMaxErrorRetry(),
+            true);
+        return new ClientConfiguration()
+            .withMaxConnections(properties.getMaxConnections())
+            .withConnectionTTL(properties.getConnectionTtl().toMillis())
+            .withConnectionMaxIdleMillis(properties.getConnectionMaxIdle().toMillis())
+            .withReaper(properties.isUseReaper())
+            .withTcpKeepAlive(properties.isTcpKeepAlive())
+            .withValidateAfterInactivityMillis((int) properties.getValidateAfterInactivity().toMillis())
+            .withConnectionTimeout((int) properties.getConnectionTimeout().toMillis())
+            .withSocketTimeout((int) properties.getSocketTimeout().toMillis())
+            .withRequestTimeout((int) properties.getRequestTimeout().toMillis())
+            .withClientExecutionTimeout((int) properties.getClientExecutionTimeout().toMillis())
+            .withMaxErrorRetry(properties.getMaxErrorRetry())
+            .withRetryPolicy(retryPolicy);
+    }
     @Bean
     public BCryptPasswordEncoder dynamoDBPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(passwordHashingStrength);
     }
 }
@@ -0,0 +1,163 @@
+package com.nttdata.user.api.config;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.Capacity;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pede ao DynamoDB a capacidade consumida em cada chamada, detalhada por
+ * índice, e publica como {@code dynamodb.consumed.capacity} por tabela, índice
+ * e operação. É um contador: no Prometheus, {@code rate()} dá as unidades por
+ * segundo, que é o que se compara com a capacidade provisionada. A capacidade
+ * também é somada ao {@link DynamoDBRequestCost} da requisição corrente.
+ */
+@Component
+public class DynamoDBConsumedCapacityHandler extends RequestHandler2 {
+
+    private static final String TABLE_TARGET = "table";
+
+    private final MeterRegistry meterRegistry;
+
+    public DynamoDBConsumedCapacityHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public AmazonWebServiceRequest beforeExecution(AmazonWebServiceRequest request) {
+        String indexes = ReturnConsumedCapacity.INDEXES.toString();
+        if (request instanceof GetItemRequest get && get.getReturnConsumedCapacity() == null) {
+            get.setReturnConsumedCapacity(indexes);
+        } else if (request instanceof PutItemRequest put && put.getReturnConsumedCapacity() == null) {
+            put.setReturnConsumedCapacity(indexes);
+        } else if (request instanceof UpdateItemRequest update && update.getReturnConsumedCapacity() == null) {
+            update.setReturnConsumedCapacity(indexes);
+        } else if (request instanceof DeleteItemRequest delete && delete.getReturnConsumedCapacity() == null) {
+            delete.setReturnConsumedCapacity(indexes);
+        } else if (request instanceof QueryRequest query && query.getReturnConsumedCapacity() == null) {
+            query.setReturnConsumedCapacity(indexes);
+        } else if (request instanceof ScanRequest scan && scan.getReturnConsumedCapacity() == null) {
+            scan.setReturnConsumedCapacity(indexes);
+        } else if (request instanceof BatchWriteItemRequest batchWrite && batchWrite.getReturnConsumedCapacity() == null) {
+            batchWrite.setReturnConsumedCapacity(indexes);
+        } else if (request instanceof BatchGetItemRequest batchGet && batchGet.getReturnConsumedCapacity() == null) {
+            batchGet.setReturnConsumedCapacity(indexes);
+        } else if (request instanceof TransactWriteItemsRequest transact && transact.getReturnConsumedCapacity() == null) {
+            transact.setReturnConsumedCapacity(indexes);
+        }
+        return request;
+    }
+
+    @Override
+    public void afterResponse(Request<?> request, Response<?> response) {
+        String operation = request.getOriginalRequest().getClass().getSimpleName().replace("Request", "");
+        DynamoDBRequestCost cost = DynamoDBRequestCost.current();
+        if (cost != null) {
+            cost.addCall();
+            MDC.put(DynamoDBRequestCostFilter.MDC_CALLS, String.valueOf(cost.getCalls()));
+        }
+        consumedCapacity(response.getAwsResponse()).forEach(consumedCapacity -> record(operation, consumedCapacity));
+    }
+
+    /**
+     * Capacidade consumida informada no resultado de uma chamada; vazia se não houver.
+     */
+    static List<ConsumedCapacity> consumedCapacity(Object result) {
+        if (result instanceof GetItemResult get) {
+            return asList(get.getConsumedCapacity());
+        } else if (result instanceof PutItemResult put) {
+            return asList(put.getConsumedCapacity());
+        } else if (result instanceof UpdateItemResult update) {
+            return asList(update.getConsumedCapacity());
+        } else if (result instanceof DeleteItemResult delete) {
+            return asList(delete.getConsumedCapacity());
+        } else if (result instanceof QueryResult query) {
+            return asList(query.getConsumedCapacity());
+        } else if (result instanceof ScanResult scan) {
+            return asList(scan.getConsumedCapacity());
+        } else if (result instanceof BatchWriteItemResult batchWrite) {
+            return asList(batchWrite.getConsumedCapacity());
+        } else if (result instanceof BatchGetItemResult batchGet) {
+            return asList(batchGet.getConsumedCapacity());
+        } else if (result instanceof TransactWriteItemsResult transact) {
+            return asList(transact.getConsumedCapacity());
+        }
+        return List.of();
+    }
+
+    private static List<ConsumedCapacity> asList(ConsumedCapacity consumedCapacity) {
+        return consumedCapacity == null ? List.of() : List.of(consumedCapacity);
+    }
+
+    private static List<ConsumedCapacity> asList(List<ConsumedCapacity> consumedCapacities) {
+        return consumedCapacities == null ? List.of() : consumedCapacities;
+    }
+
+    private void record(String operation, ConsumedCapacity consumedCapacity) {
+        if (consumedCapacity == null || consumedCapacity.getCapacityUnits() == null) {
+            return;
+        }
+        String table = consumedCapacity.getTableName() == null ? "desconhecida" : consumedCapacity.getTableName();
+        DynamoDBRequestCost cost = DynamoDBRequestCost.current();
+        Map<String, Capacity> indexes = consumedCapacity.getGlobalSecondaryIndexes();
+        if (consumedCapacity.getTable() != null || indexes != null) {
+            if (consumedCapacity.getTable() != null) {
+                record(table, TABLE_TARGET, operation, consumedCapacity.getTable().getCapacityUnits(), cost);
+            }
+            if (indexes != null) {
+                indexes.forEach((index, capacity) -> record(table, index, operation, capacity.getCapacityUnits(), cost));
+            }
+        } else {
+            record(table, TABLE_TARGET, operation, consumedCapacity.getCapacityUnits(), cost);
+        }
+        if (cost != null) {
+            cost.addCapacity(operation, consumedCapacity.getCapacityUnits());
+            MDC.put(DynamoDBRequestCostFilter.MDC_CAPACITY, String.valueOf(cost.getCapacityUnits()));
+        }
+    }
+
+    private void record(String table, String index, String operation, Double units, DynamoDBRequestCost cost) {
+        if (units == null) {
+            return;
+        }
+        Counter.builder("dynamodb.consumed.capacity")
+            .description("Unidades de capacidade consumidas no DynamoDB")
+            .baseUnit("capacity_units")
+            .tag("table", table)
+            .tag("index", index)
+            .tag("operation", operation)
+            .register(meterRegistry)
+            .increment(units);
+        if (cost != null) {
+            cost.addTargetCapacity(TABLE_TARGET.equals(index) ? table : table + "/" + index, units);
+        }
+    }
+}
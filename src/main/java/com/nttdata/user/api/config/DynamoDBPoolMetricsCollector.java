@@ -0,0 +1,55 @@
+package com.nttdata.user.api.config;
+
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.metrics.RequestMetricCollector;
+import com.amazonaws.util.AWSRequestMetrics;
+import com.amazonaws.util.TimingInfo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publica o estado do pool de conexões do cliente DynamoDB. O SDK v1 só
+ * registra esses contadores quando há um {@link RequestMetricCollector}
+ * configurado, e os valores refletem a última requisição executada.
+ */
+@Component
+public class DynamoDBPoolMetricsCollector extends RequestMetricCollector {
+
+    private final AtomicInteger leased = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger available = new AtomicInteger();
+
+    public DynamoDBPoolMetricsCollector(MeterRegistry meterRegistry) {
+        Gauge.builder("dynamodb.client.pool.connections", leased, AtomicInteger::get)
+            .tag("state", "leased")
+            .register(meterRegistry);
+        Gauge.builder("dynamodb.client.pool.connections", pending, AtomicInteger::get)
+            .tag("state", "pending")
+            .register(meterRegistry);
+        Gauge.builder("dynamodb.client.pool.connections", available, AtomicInteger::get)
+            .tag("state", "available")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void collectMetrics(Request<?> request, Response<?> response) {
+        AWSRequestMetrics requestMetrics = request.getAWSRequestMetrics();
+        if (requestMetrics == null) {
+            return;
+        }
+        TimingInfo timingInfo = requestMetrics.getTimingInfo();
+        update(leased, timingInfo.getCounter(AWSRequestMetrics.Field.HttpClientPoolLeasedCount.name()));
+        update(pending, timingInfo.getCounter(AWSRequestMetrics.Field.HttpClientPoolPendingCount.name()));
+        update(available, timingInfo.getCounter(AWSRequestMetrics.Field.HttpClientPoolAvailableCount.name()));
+    }
+
+    private static void update(AtomicInteger gauge, Number value) {
+        if (value != null) {
+            gauge.set(value.intValue());
+        }
+    }
+}
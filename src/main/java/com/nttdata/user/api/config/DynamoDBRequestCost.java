@@ -0,0 +1,69 @@
+package com.nttdata.user.api.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Capacidade do DynamoDB consumida pela requisição HTTP corrente. Aberto pelo
+ * {@link DynamoDBRequestCostFilter} e alimentado pelo
+ * {@link DynamoDBConsumedCapacityHandler}; vale para chamadas feitas na thread
+ * da requisição (o cliente assíncrono e os executores de lote não entram).
+ */
+public final class DynamoDBRequestCost {
+
+    private static final ThreadLocal<DynamoDBRequestCost> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Double> capacityByOperation = new LinkedHashMap<>();
+    private final Map<String, Double> capacityByTarget = new LinkedHashMap<>();
+    private double capacityUnits;
+    private int calls;
+
+    private DynamoDBRequestCost() {
+    }
+
+    static DynamoDBRequestCost begin() {
+        DynamoDBRequestCost cost = new DynamoDBRequestCost();
+        CURRENT.set(cost);
+        return cost;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static DynamoDBRequestCost current() {
+        return CURRENT.get();
+    }
+
+    void addCall() {
+        calls++;
+    }
+
+    void addCapacity(String operation, double units) {
+        capacityUnits += units;
+        capacityByOperation.merge(operation, units, Double::sum);
+    }
+
+    void addTargetCapacity(String target, double units) {
+        capacityByTarget.merge(target, units, Double::sum);
+    }
+
+    public double getCapacityUnits() {
+        return capacityUnits;
+    }
+
+    public int getCalls() {
+        return calls;
+    }
+
+    public Map<String, Double> getCapacityByOperation() {
+        return capacityByOperation;
+    }
+
+    /**
+     * Capacidade por tabela ou índice, com chaves {@code User} e {@code User/EmailIndex}.
+     */
+    public Map<String, Double> getCapacityByTarget() {
+        return capacityByTarget;
+    }
+}
@@ -0,0 +1,91 @@
+package com.nttdata.user.api.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Abre um {@link DynamoDBRequestCost} por requisição, agrega a capacidade
+ * consumida por endpoint e operação e registra as requisições que passam do
+ * limite de duração ou de capacidade.
+ */
+@Component
+public class DynamoDBRequestCostFilter extends OncePerRequestFilter {
+
+    static final String MDC_CAPACITY = "dynamodbCapacity";
+    static final String MDC_CALLS = "dynamodbCalls";
+
+    private static final Logger logger = LoggerFactory.getLogger(DynamoDBRequestCostFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final Duration slowThreshold;
+    private final double capacityThreshold;
+
+    public DynamoDBRequestCostFilter(MeterRegistry meterRegistry,
+                                     @Value("${user.request-cost.slow-threshold:500ms}") Duration slowThreshold,
+                                     @Value("${user.request-cost.capacity-threshold:25}") double capacityThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowThreshold = slowThreshold;
+        this.capacityThreshold = capacityThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        DynamoDBRequestCost cost = DynamoDBRequestCost.begin();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            DynamoDBRequestCost.end();
+            record(request, response, cost, elapsedNanos);
+            MDC.remove(MDC_CAPACITY);
+            MDC.remove(MDC_CALLS);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, DynamoDBRequestCost cost, long elapsedNanos) {
+        String uri = uri(request);
+        DistributionSummary.builder("http.server.dynamodb.requests.capacity")
+            .description("Capacidade do DynamoDB consumida por requisição")
+            .baseUnit("capacity_units")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(cost.getCapacityUnits());
+        cost.getCapacityByOperation().forEach((operation, units) -> DistributionSummary.builder("http.server.dynamodb.capacity")
+            .description("Capacidade do DynamoDB consumida por requisição e operação")
+            .baseUnit("capacity_units")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .tag("operation", operation)
+            .register(meterRegistry)
+            .record(units));
+
+        if (elapsedNanos >= slowThreshold.toNanos() || cost.getCapacityUnits() >= capacityThreshold) {
+            logger.warn("Requisição lenta ou cara: {} {} status={} duração={}ms capacidade={} chamadas={} por alvo={}",
+                request.getMethod(), uri, response.getStatus(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                cost.getCapacityUnits(), cost.getCalls(), cost.getCapacityByTarget());
+        }
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
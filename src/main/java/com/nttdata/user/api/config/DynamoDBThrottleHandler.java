@@ -0,0 +1,313 @@
+package com.nttdata.user.api.config;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.handlers.HandlerAfterAttemptContext;
+import com.amazonaws.handlers.HandlerContextKey;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.CancellationReason;
+import com.amazonaws.services.dynamodbv2.model.Capacity;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.nttdata.user.api.exception.DynamoDBThrottledException;
+import com.nttdata.user.api.service.AimdRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limita as chamadas do cliente {@code AmazonDynamoDB} à capacidade provisionada,
+ * com um {@link AimdRateLimiter} por alvo (tabela ou {@code tabela/índice}) e tipo
+ * (leitura ou escrita), com teto em {@link DynamoDBThrottleProperties}.
+ * <p>
+ * Cada chamada reserva uma unidade no alvo antes de sair e, na resposta, paga a
+ * diferença para a capacidade consumida que o DynamoDB informou (ver
+ * {@link DynamoDBConsumedCapacityHandler}), então uma consulta grande deixa débito
+ * para as próximas. Uma escrita também espera o débito de escrita dos índices da
+ * tabela, que ela atualiza. Se a espera passar de {@code max-wait}, a chamada é
+ * recusada com {@link DynamoDBThrottledException} em vez de entrar na fila do
+ * DynamoDB.
+ * <p>
+ * Cada tentativa com {@code ProvisionedThroughputExceededException} (ou item não
+ * processado num lote) reduz a taxa pela metade e cobra a nova tentativa do SDK
+ * no mesmo bucket; chamadas sem throttling sobem a taxa de volta até o teto, em
+ * {@code increase} unidades/s a cada segundo.
+ * Os eventos saem em {@code dynamodb.throttle.events} e a taxa corrente em
+ * {@code dynamodb.throttle.rate}.
+ */
+@Component
+public class DynamoDBThrottleHandler extends RequestHandler2 {
+
+    static final String READ = "read";
+    static final String WRITE = "write";
+
+    /** Reserva antes da chamada; o resto é cobrado pela capacidade consumida. */
+    private static final double ESTIMATED_UNITS = 1;
+
+    private static final Set<String> THROTTLING_ERRORS = Set.of(
+        "ProvisionedThroughputExceededException", "ThrottlingException", "RequestLimitExceeded");
+
+    private static final HandlerContextKey<Call> CALL = new HandlerContextKey<>("DynamoDBThrottleCall");
+
+    private final DynamoDBThrottleProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Target> targets = new ConcurrentHashMap<>();
+
+    public DynamoDBThrottleHandler(DynamoDBThrottleProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeRequest(Request<?> request) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Call call = call(request.getOriginalRequest());
+        if (call == null) {
+            return;
+        }
+        Target target = target(call.kind(), call.target());
+        try {
+            // Os índices são verificados antes da tabela: um descarte pelo índice não pode consumir permissões da tabela
+            if (WRITE.equals(call.kind())) {
+                for (Target index : indexTargets(WRITE, call.table())) {
+                    if (!index.limiter().tryAcquire(0, properties.getMaxWait())) {
+                        throw shed(index);
+                    }
+                }
+            }
+            if (target != null && !target.limiter().tryAcquire(ESTIMATED_UNITS, properties.getMaxWait())) {
+                throw shed(target);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DynamoDBThrottledException("Espera por capacidade do DynamoDB interrompida");
+        }
+        request.addHandlerContext(CALL, call);
+    }
+
+    @Override
+    public void afterAttempt(HandlerAfterAttemptContext context) {
+        Call call = context.getRequest().getHandlerContext(CALL);
+        if (call != null && isThrottling(context.getException())) {
+            throttled(call, ESTIMATED_UNITS);
+        }
+    }
+
+    @Override
+    public void afterResponse(Request<?> request, Response<?> response) {
+        Call call = request.getHandlerContext(CALL);
+        if (call == null) {
+            return;
+        }
+        Object result = response.getAwsResponse();
+        for (ConsumedCapacity consumedCapacity : DynamoDBConsumedCapacityHandler.consumedCapacity(result)) {
+            charge(call, consumedCapacity);
+        }
+        if (hasUnprocessed(result)) {
+            // O SDK não repete itens não processados; quem chamou repete, e paga ao sair de novo.
+            throttled(call, 0);
+        } else {
+            Target target = target(call.kind(), call.target());
+            if (target != null) {
+                target.limiter().onSuccess();
+            }
+        }
+    }
+
+    /**
+     * Tipo e alvo da chamada, ou {@code null} para operações que não consomem capacidade.
+     */
+    static Call call(AmazonWebServiceRequest request) {
+        if (request instanceof GetItemRequest get) {
+            return new Call(READ, get.getTableName(), null);
+        } else if (request instanceof QueryRequest query) {
+            return new Call(READ, query.getTableName(), query.getIndexName());
+        } else if (request instanceof ScanRequest scan) {
+            return new Call(READ, scan.getTableName(), scan.getIndexName());
+        } else if (request instanceof BatchGetItemRequest batchGet && !batchGet.getRequestItems().isEmpty()) {
+            return new Call(READ, batchGet.getRequestItems().keySet().iterator().next(), null);
+        } else if (request instanceof PutItemRequest put) {
+            return new Call(WRITE, put.getTableName(), null);
+        } else if (request instanceof UpdateItemRequest update) {
+            return new Call(WRITE, update.getTableName(), null);
+        } else if (request instanceof DeleteItemRequest delete) {
+            return new Call(WRITE, delete.getTableName(), null);
+        } else if (request instanceof BatchWriteItemRequest batchWrite && !batchWrite.getRequestItems().isEmpty()) {
+            return new Call(WRITE, batchWrite.getRequestItems().keySet().iterator().next(), null);
+        } else if (request instanceof TransactWriteItemsRequest transact && !transact.getTransactItems().isEmpty()) {
+            return new Call(WRITE, tableName(transact.getTransactItems().get(0)), null);
+        }
+        return null;
+    }
+
+    private static String tableName(TransactWriteItem item) {
+        if (item.getPut() != null) {
+            return item.getPut().getTableName();
+        } else if (item.getUpdate() != null) {
+            return item.getUpdate().getTableName();
+        } else if (item.getDelete() != null) {
+            return item.getDelete().getTableName();
+        }
+        return item.getConditionCheck().getTableName();
+    }
+
+    static boolean isThrottling(Exception exception) {
+        if (exception instanceof TransactionCanceledException canceled && canceled.getCancellationReasons() != null) {
+            for (CancellationReason reason : canceled.getCancellationReasons()) {
+                if ("ThrottlingError".equals(reason.getCode())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return exception instanceof AmazonServiceException service && THROTTLING_ERRORS.contains(service.getErrorCode());
+    }
+
+    private static boolean hasUnprocessed(Object result) {
+        if (result instanceof BatchWriteItemResult batchWrite) {
+            return batchWrite.getUnprocessedItems() != null && !batchWrite.getUnprocessedItems().isEmpty();
+        }
+        if (result instanceof BatchGetItemResult batchGet) {
+            return batchGet.getUnprocessedKeys() != null && !batchGet.getUnprocessedKeys().isEmpty();
+        }
+        return false;
+    }
+
+    /**
+     * Reduz a taxa do alvo e, numa escrita, dos índices da tabela: o throttling de
+     * uma escrita pode vir de qualquer um deles. {@code retryUnits} é cobrado pela
+     * nova tentativa que o SDK fará.
+     */
+    private void throttled(Call call, double retryUnits) {
+        List<Target> throttled = new ArrayList<>();
+        Target target = target(call.kind(), call.target());
+        if (target != null) {
+            throttled.add(target);
+        }
+        if (WRITE.equals(call.kind())) {
+            throttled.addAll(indexTargets(WRITE, call.table()));
+        }
+        for (Target each : throttled) {
+            each.limiter().onThrottle();
+            each.serverThrottles().increment();
+        }
+        if (target != null && retryUnits > 0) {
+            target.limiter().charge(retryUnits);
+        }
+    }
+
+    private void charge(Call call, ConsumedCapacity consumedCapacity) {
+        String table = consumedCapacity.getTableName() == null ? call.table() : consumedCapacity.getTableName();
+        Map<String, Capacity> indexes = consumedCapacity.getGlobalSecondaryIndexes();
+        if (consumedCapacity.getTable() != null || indexes != null) {
+            if (consumedCapacity.getTable() != null) {
+                charge(call, table, consumedCapacity.getTable().getCapacityUnits());
+            }
+            if (indexes != null) {
+                indexes.forEach((index, capacity) -> charge(call, table + "/" + index, capacity.getCapacityUnits()));
+            }
+        } else {
+            charge(call, table, consumedCapacity.getCapacityUnits());
+        }
+    }
+
+    private void charge(Call call, String targetName, Double units) {
+        Target target = units == null ? null : target(call.kind(), targetName);
+        if (target == null) {
+            return;
+        }
+        double reserved = targetName.equals(call.target()) ? ESTIMATED_UNITS : 0;
+        if (units > reserved) {
+            target.limiter().charge(units - reserved);
+        }
+    }
+
+    private List<Target> indexTargets(String kind, String table) {
+        List<Target> indexes = new ArrayList<>();
+        String prefix = table + "/";
+        for (String name : capacities(kind).keySet()) {
+            if (name.startsWith(prefix)) {
+                indexes.add(target(kind, name));
+            }
+        }
+        return indexes;
+    }
+
+    private Map<String, Double> capacities(String kind) {
+        return READ.equals(kind) ? properties.getRead() : properties.getWrite();
+    }
+
+    private Target target(String kind, String name) {
+        Double capacity = name == null ? null : capacities(kind).get(name);
+        if (capacity == null) {
+            return null;
+        }
+        return targets.computeIfAbsent(kind + ":" + name, key -> newTarget(kind, name, capacity));
+    }
+
+    private Target newTarget(String kind, String name, double capacity) {
+        AimdRateLimiter limiter = new AimdRateLimiter(capacity, capacity * properties.getMinRateFraction(),
+            properties.getIncrease(), properties.getDecrease());
+        int slash = name.indexOf('/');
+        String table = slash < 0 ? name : name.substring(0, slash);
+        String index = slash < 0 ? "table" : name.substring(slash + 1);
+        Gauge.builder("dynamodb.throttle.rate", limiter, AimdRateLimiter::rate)
+            .description("Taxa atual permitida pelo limitador do cliente DynamoDB")
+            .baseUnit("capacity_units")
+            .tag("table", table)
+            .tag("index", index)
+            .tag("kind", kind)
+            .register(meterRegistry);
+        return new Target(name, limiter,
+            throttleEvents(table, index, kind, "server"),
+            throttleEvents(table, index, kind, "client"));
+    }
+
+    private Counter throttleEvents(String table, String index, String kind, String source) {
+        return Counter.builder("dynamodb.throttle.events")
+            .description("Throttling do DynamoDB (server) e chamadas recusadas pelo limitador (client)")
+            .tag("table", table)
+            .tag("index", index)
+            .tag("kind", kind)
+            .tag("source", source)
+            .register(meterRegistry);
+    }
+
+    private static DynamoDBThrottledException shed(Target target) {
+        target.shed().increment();
+        return new DynamoDBThrottledException("Capacidade do DynamoDB esgotada para " + target.name());
+    }
+
+    record Call(String kind, String table, String index) {
+
+        String target() {
+            return index == null ? table : table + "/" + index;
+        }
+    }
+
+    private record Target(String name, AimdRateLimiter limiter, Counter serverThrottles, Counter shed) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.nttdata.user.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Limitação adaptativa do cliente {@code AmazonDynamoDB} (SDK v1), ver
+ * {@link DynamoDBThrottleHandler}. Os tetos são por tabela ou {@code tabela/índice};
+ * alvo sem teto configurado não é limitado.
+ */
+@Data
+@ConfigurationProperties(prefix = "amazon.dynamodb.throttle")
+public class DynamoDBThrottleProperties {
+
+    private boolean enabled = true;
+
+    /** Espera máxima por capacidade antes de recusar a chamada. */
+    private Duration maxWait = Duration.ofMillis(200);
+
+    /** Piso da taxa, como fração do teto. */
+    private double minRateFraction = 0.1;
+
+    /** Unidades/s somadas à taxa por segundo com chamadas sem throttling. */
+    private double increase = 0.5;
+
+    /** Fator aplicado à taxa a cada throttling. */
+    private double decrease = 0.5;
+
+    /** Teto de leitura em RCU, por tabela ou {@code tabela/índice}. */
+    private Map<String, Double> read = new HashMap<>();
+
+    /** Teto de escrita em WCU, por tabela ou {@code tabela/índice}. */
+    private Map<String, Double> write = new HashMap<>();
+}
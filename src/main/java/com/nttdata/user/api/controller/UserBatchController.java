@@ -0,0 +1,124 @@
+package com.nttdata.user.api.controller;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.user.api.data.dto.UserBatchResultDto;
+import com.nttdata.user.api.data.dto.UserBatchStatus;
+import com.nttdata.user.api.data.dto.UserDto;
+import com.nttdata.user.api.service.SessionPrincipal;
+import com.nttdata.user.api.service.SessionTokenService;
+import com.nttdata.user.api.service.UserBatchService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/users")
+public class UserBatchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserBatchController.class);
+
+    private final UserBatchService userBatchService;
+    private final ObjectMapper objectMapper;
+    private final SessionTokenService sessionTokenService;
+
+    @Autowired
+    public UserBatchController(UserBatchService userBatchService, ObjectMapper objectMapper,
+                               SessionTokenService sessionTokenService) {
+        this.userBatchService = userBatchService;
+        this.objectMapper = objectMapper;
+        this.sessionTokenService = sessionTokenService;
+    }
+
+    /**
+     * Aceita um array JSON ou NDJSON (um usuário por linha); a entrada é lida
+     * em streaming e processada em janelas, até {@code user.batch.max-items}.
+     * Exige um token de acesso de administrador: cada item custa um BCrypt.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> registerUsers(@RequestHeader(value = UserController.AUTH_TOKEN_HEADER, required = false) String accessToken,
+                                           HttpServletRequest request) {
+        Optional<SessionPrincipal> principal = sessionTokenService.verifyPrincipal(accessToken);
+        if (principal.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Token de acesso inválido");
+        }
+        if (!principal.get().admin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Cadastro em lote restrito a administradores");
+        }
+        try (MappingIterator<UserDto> users = objectMapper.readerFor(UserDto.class).readValues(request.getInputStream())) {
+            StoppingIterator input = new StoppingIterator(users);
+            List<UserBatchResultDto> results = userBatchService.registerUsers(input);
+            if (input.failure != null) {
+                results.add(new UserBatchResultDto(results.size(), null, null, UserBatchStatus.FAILED,
+                    "Entrada inválida, leitura interrompida: " + input.failure.getMessage()));
+            }
+            return ResponseEntity.ok(results);
+        } catch (IOException e) {
+            logger.warn("Lote de usuários ilegível", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Lote de usuários inválido");
+        } catch (Exception e) {
+            logger.error("Erro ao processar o lote de usuários", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao processar o lote de usuários");
+        }
+    }
+
+    /**
+     * Encerra a iteração no primeiro item malformado, preservando os
+     * resultados do que já foi processado.
+     */
+    private static final class StoppingIterator implements Iterator<UserDto> {
+
+        private final MappingIterator<UserDto> delegate;
+        private UserDto buffered;
+        private RuntimeException failure;
+
+        private StoppingIterator(MappingIterator<UserDto> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (buffered != null) {
+                return true;
+            }
+            if (failure != null) {
+                return false;
+            }
+            try {
+                while (delegate.hasNext()) {
+                    buffered = delegate.next();
+                    if (buffered != null) {
+                        return true;
+                    }
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            return false;
+        }
+
+        @Override
+        public UserDto next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            UserDto next = buffered;
+            buffered = null;
+            return next;
+        }
+    }
+}
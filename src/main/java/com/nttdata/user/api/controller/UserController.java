@@ -1,10 +1,25 @@
 package com.nttdata.user.api.controller;
 
+import com.nttdata.user.api.data.dto.UserRegistrationStatus;
+import com.nttdata.user.api.data.dto.UserRegistrationStatusDto;
+import com.nttdata.user.api.data.mapper.UserMapper;
+import com.nttdata.user.api.exception.DynamoDBThrottledException;
+import com.nttdata.user.api.exception.PasswordHashingRejectedException;
+import com.nttdata.user.api.exception.RegistrationQueueFullException;
+import com.nttdata.user.api.exception.UserAlreadyExistsException;
+import com.nttdata.user.api.service.LoginRateLimiter;
+import com.nttdata.user.api.service.RegistrationWriteBehind;
+import com.nttdata.user.api.service.SessionPrincipal;
+import com.nttdata.user.api.service.SessionTokenService;
+import com.nttdata.user.api.service.SessionTokens;
 import com.nttdata.user.api.service.UserService;
 import com.nttdata.user.api.data.dto.UserDto;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -14,40 +29,152 @@ import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
+    static final String AUTH_TOKEN_HEADER = "X-Auth-Token";
+    static final String REFRESH_TOKEN_HEADER = "X-Refresh-Token";
+
     private final UserService userService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final SessionTokenService sessionTokenService;
+    private final RegistrationWriteBehind registrationWriteBehind;
+    private final UserMapper userMapper;
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
 
     //private final BCryptPasswordEncoder passwordEncoder;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, LoginRateLimiter loginRateLimiter, SessionTokenService sessionTokenService,
+                          RegistrationWriteBehind registrationWriteBehind, UserMapper userMapper) {
         this.userService = userService;
+        this.loginRateLimiter = loginRateLimiter;
+        this.sessionTokenService = sessionTokenService;
+        this.registrationWriteBehind = registrationWriteBehind;
+        this.userMapper = userMapper;
         ;
     }
 
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody UserDto user) {
         try {
+            if (registrationWriteBehind.isEnabled()) {
+                UserDto acceptedUser = userService.submitRegistration(user);
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/api/users/registrations/" + acceptedUser.getId()))
+                    .body(new UserRegistrationStatusDto(acceptedUser.getId(), UserRegistrationStatus.PENDING));
+            }
             UserDto registeredUser = userService.registerUser(user);
-            return ResponseEntity.status(HttpStatus.CREATED).body(registeredUser);
+            return ResponseEntity.status(HttpStatus.CREATED).body(userMapper.toPublicDto(registeredUser));
 
+        } catch (UserAlreadyExistsException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (RegistrationQueueFullException e) {
+            logger.warn("Registro rejeitado com a fila cheia: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Serviço temporariamente indisponível");
+        } catch (PasswordHashingRejectedException | DynamoDBThrottledException e) {
+            logger.warn("Registro rejeitado por sobrecarga: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Serviço temporariamente indisponível");
         } catch (Exception e) {
             logger.error("Erro ao processar o registro do usuário", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao processar o registro do usuário");
         }
     }
+
+    /**
+     * Status de um cadastro aceito com 202; conhecido só pela instância que o aceitou.
+     */
+    @GetMapping("/registrations/{id}")
+    public ResponseEntity<UserRegistrationStatusDto> registrationStatus(@PathVariable String id) {
+        return registrationWriteBehind.status(id)
+            .map(status -> ResponseEntity.status(HttpStatus.OK).body(new UserRegistrationStatusDto(id, status)))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
     @PostMapping("/login")
-    public ResponseEntity<Boolean> loginUser(@RequestBody UserDto loginRequest) {
+    public ResponseEntity<Boolean> loginUser(@RequestBody UserDto loginRequest, HttpServletRequest request) {
+        // Com server.forward-headers-strategy=native, o endereço remoto já é o cliente
+        // informado pelo proxy confiável, e não o do balanceador.
+        Optional<Duration> retryAfter = loginRateLimiter.tryAcquire(loginRequest.getEmail(), request.getRemoteAddr());
+        if (retryAfter.isPresent()) {
+            long seconds = Math.max(1, (retryAfter.get().toMillis() + 999) / 1000);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(false);
+        }
         try {
-            boolean user = userService.findByEmail(loginRequest);
-            return ResponseEntity.status(HttpStatus.OK).body(user);
+            Optional<SessionPrincipal> principal = userService.authenticate(loginRequest);
+            if (principal.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.OK).body(false);
+            }
+            return withTokens(ResponseEntity.status(HttpStatus.OK), sessionTokenService.issue(principal.get())).body(true);
+        } catch (PasswordHashingRejectedException | DynamoDBThrottledException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(false);
         } catch (Exception e) {
+            logger.error("Erro ao processar o login do usuário", e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(false);
         }
     }
+
+    /**
+     * Troca o token de renovação por um novo par, sem senha; só uma escrita condicional
+     * no DynamoDB. Limitada pelo mesmo bucket por IP do login.
+     */
+    @PostMapping("/token/refresh")
+    public ResponseEntity<Boolean> refreshToken(@RequestHeader(value = REFRESH_TOKEN_HEADER, required = false) String refreshToken,
+                                                HttpServletRequest request) {
+        Optional<Duration> retryAfter = loginRateLimiter.tryAcquire(null, request.getRemoteAddr());
+        if (retryAfter.isPresent()) {
+            long seconds = Math.max(1, (retryAfter.get().toMillis() + 999) / 1000);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(false);
+        }
+        try {
+            return sessionTokenService.refresh(refreshToken)
+                .map(tokens -> withTokens(ResponseEntity.status(HttpStatus.OK), tokens).body(true))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(false));
+        } catch (Exception e) {
+            if (!(e instanceof DynamoDBThrottledException)) {
+                logger.error("Erro ao renovar a sessão do usuário", e);
+            }
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(false);
+        }
+    }
+
+    @GetMapping("/session")
+    public ResponseEntity<String> session(@RequestHeader(value = AUTH_TOKEN_HEADER, required = false) String accessToken) {
+        return sessionTokenService.verifyAccess(accessToken)
+            .map(userId -> ResponseEntity.status(HttpStatus.OK).body(userId))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = AUTH_TOKEN_HEADER, required = false) String accessToken,
+                                       @RequestHeader(value = REFRESH_TOKEN_HEADER, required = false) String refreshToken) {
+        sessionTokenService.revoke(accessToken);
+        sessionTokenService.revoke(refreshToken);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static ResponseEntity.BodyBuilder withTokens(ResponseEntity.BodyBuilder response, SessionTokens tokens) {
+        return response
+            .header(AUTH_TOKEN_HEADER, tokens.accessToken())
+            .header(REFRESH_TOKEN_HEADER, tokens.refreshToken())
+            .cacheControl(CacheControl.noStore());
+    }
 }
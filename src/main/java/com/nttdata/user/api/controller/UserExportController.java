@@ -0,0 +1,107 @@
+package com.nttdata.user.api.controller;
+
+import com.nttdata.user.api.data.dto.UserExportFormat;
+import com.nttdata.user.api.exception.UserExportRejectedException;
+import com.nttdata.user.api.service.SessionPrincipal;
+import com.nttdata.user.api.service.SessionTokenService;
+import com.nttdata.user.api.service.UserExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/users")
+public class UserExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserExportController.class);
+    private static final String CSV_CONTENT_TYPE = "text/csv;charset=UTF-8";
+
+    private final UserExportService userExportService;
+    private final SessionTokenService sessionTokenService;
+
+    @Autowired
+    public UserExportController(UserExportService userExportService, SessionTokenService sessionTokenService) {
+        this.userExportService = userExportService;
+        this.sessionTokenService = sessionTokenService;
+    }
+
+    /**
+     * Escreve direto na resposta, na thread da requisição, para não depender do
+     * timeout de requisições assíncronas numa exportação que pode levar horas.
+     * Exige um token de acesso de administrador.
+     */
+    @GetMapping("/export")
+    public void exportUsers(@RequestHeader(value = UserController.AUTH_TOKEN_HEADER, required = false) String accessToken,
+                            @RequestParam(defaultValue = "ndjson") String format,
+                            @RequestParam(defaultValue = "4") int segments,
+                            @RequestParam(required = false) String cursor,
+                            @RequestParam(defaultValue = "0") long limit,
+                            HttpServletResponse response) throws IOException {
+        Optional<SessionPrincipal> principal = sessionTokenService.verifyPrincipal(accessToken);
+        if (principal.isEmpty()) {
+            reject(response, HttpStatus.UNAUTHORIZED, "Token de acesso inválido");
+            return;
+        }
+        if (!principal.get().admin()) {
+            reject(response, HttpStatus.FORBIDDEN, "Exportação restrita a administradores");
+            return;
+        }
+        UserExportFormat exportFormat;
+        try {
+            exportFormat = UserExportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            reject(response, HttpStatus.BAD_REQUEST, "Formato de exportação inválido: " + format);
+            return;
+        }
+        try {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(exportFormat == UserExportFormat.CSV ? CSV_CONTENT_TYPE : MediaType.APPLICATION_NDJSON_VALUE);
+            userExportService.export(exportFormat, segments, cursor, limit, response.getOutputStream());
+        } catch (IllegalArgumentException e) {
+            reject(response, HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (UserExportRejectedException e) {
+            logger.warn("Exportação rejeitada: {}", e.getMessage());
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), "60");
+        } catch (IOException e) {
+            logger.info("Exportação de usuários interrompida pelo cliente: {}", e.getMessage());
+        } catch (Exception e) {
+            logger.error("Erro ao exportar usuários", e);
+            reject(response, HttpStatus.INTERNAL_SERVER_ERROR, "Erro ao exportar usuários");
+        }
+    }
+
+    /**
+     * Depois que a resposta foi enviada não há como trocar o status; o cliente
+     * percebe o corte pela falta da linha final de cursor e retoma do último checkpoint.
+     */
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        reject(response, status, message, null);
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message, String retryAfter) throws IOException {
+        if (response.isCommitted()) {
+            return;
+        }
+        response.reset();
+        if (retryAfter != null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+        response.setStatus(status.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8");
+        response.getOutputStream().write(message.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,119 @@
+package com.nttdata.user.api.controller;
+
+import com.nttdata.user.api.data.dto.UserDtoType;
+import com.nttdata.user.api.data.dto.UserPublicDto;
+import com.nttdata.user.api.exception.DynamoDBThrottledException;
+import com.nttdata.user.api.service.SessionPrincipal;
+import com.nttdata.user.api.service.SessionTokenService;
+import com.nttdata.user.api.service.UserListingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Locale;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/users")
+public class UserListingController {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserListingController.class);
+
+    private final UserListingService userListingService;
+    private final SessionTokenService sessionTokenService;
+
+    @Autowired
+    public UserListingController(UserListingService userListingService, SessionTokenService sessionTokenService) {
+        this.userListingService = userListingService;
+        this.sessionTokenService = sessionTokenService;
+    }
+
+    /**
+     * Lista os usuários de um tipo em ordem de id, uma página por chamada; a
+     * próxima página vem com o {@code nextCursor} da resposta. Exige um token de acesso de administrador.
+     */
+    @GetMapping
+    public ResponseEntity<?> listUsers(@RequestHeader(value = UserController.AUTH_TOKEN_HEADER, required = false) String accessToken,
+                                       @RequestParam String tipo,
+                                       @RequestParam(defaultValue = "0") int limit,
+                                       @RequestParam(required = false) String cursor) {
+        Optional<SessionPrincipal> principal = sessionTokenService.verifyPrincipal(accessToken);
+        if (principal.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Token de acesso inválido");
+        }
+        if (!principal.get().admin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Listagem restrita a administradores");
+        }
+        UserDtoType tipoUsuario;
+        try {
+            tipoUsuario = UserDtoType.valueOf(tipo.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Tipo de usuário inválido: " + tipo);
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.OK)
+                .cacheControl(CacheControl.noStore())
+                .body(userListingService.listByTipo(tipoUsuario, limit, cursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (DynamoDBThrottledException e) {
+            logger.warn("Listagem rejeitada por sobrecarga: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Serviço temporariamente indisponível");
+        } catch (Exception e) {
+            logger.error("Erro ao listar usuários", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao listar usuários");
+        }
+    }
+
+    /**
+     * Muda o tipo de um usuário, inclusive para {@code ADMIN}. Exige um token de
+     * acesso de administrador; o cadastro público nunca cria administradores.
+     */
+    @PutMapping("/{id}/tipo")
+    public ResponseEntity<?> changeTipo(@RequestHeader(value = UserController.AUTH_TOKEN_HEADER, required = false) String accessToken,
+                                        @PathVariable String id,
+                                        @RequestParam String tipo) {
+        Optional<SessionPrincipal> principal = sessionTokenService.verifyPrincipal(accessToken);
+        if (principal.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Token de acesso inválido");
+        }
+        if (!principal.get().admin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Alteração de tipo restrita a administradores");
+        }
+        UserDtoType tipoUsuario;
+        try {
+            tipoUsuario = UserDtoType.valueOf(tipo.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Tipo de usuário inválido: " + tipo);
+        }
+        try {
+            Optional<UserPublicDto> updated = userListingService.changeTipo(id, tipoUsuario);
+            if (updated.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Usuário não encontrado");
+            }
+            logger.info("Tipo do usuário {} alterado para {} por {}", id, tipoUsuario, principal.get().userId());
+            return ResponseEntity.ok(updated.get());
+        } catch (DynamoDBThrottledException e) {
+            logger.warn("Alteração de tipo rejeitada por sobrecarga: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Serviço temporariamente indisponível");
+        } catch (Exception e) {
+            logger.error("Erro ao alterar tipo do usuário", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao alterar tipo do usuário");
+        }
+    }
+}
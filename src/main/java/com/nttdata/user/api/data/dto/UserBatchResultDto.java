@@ -0,0 +1,22 @@
+package com.nttdata.user.api.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class UserBatchResultDto {
+
+    private int index;
+
+    private String id;
+
+    private String cpf;
+
+    private UserBatchStatus status;
+
+    private String message;
+
+
+}
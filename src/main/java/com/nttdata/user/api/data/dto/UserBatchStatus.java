@@ -0,0 +1,5 @@
+package com.nttdata.user.api.data.dto;
+
+public enum UserBatchStatus {
+    CREATED, INVALID_CPF, DUPLICATE, FAILED
+}
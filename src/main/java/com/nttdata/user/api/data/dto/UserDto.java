@@ -1,11 +1,13 @@
 package com.nttdata.user.api.data.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
+@JsonSerialize(using = UserDtoSerializer.class)
 public class UserDto {
 
     private String id;
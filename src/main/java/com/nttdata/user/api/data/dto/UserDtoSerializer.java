@@ -0,0 +1,46 @@
+package com.nttdata.user.api.data.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Serializa {@link UserDto} campo a campo, com os nomes já codificados, sem
+ * introspecção de getters. Produz o mesmo documento do serializador padrão
+ * (mesma ordem de campos, nulos incluídos), em JSON ou CBOR.
+ */
+public final class UserDtoSerializer extends StdSerializer<UserDto> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NOME = new SerializedString("nome");
+    private static final SerializableString CPF = new SerializedString("cpf");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString SENHA = new SerializedString("senha");
+    private static final SerializableString TIPO_USUARIO = new SerializedString("tipoUsuario");
+
+    public UserDtoSerializer() {
+        super(UserDto.class);
+    }
+
+    @Override
+    public void serialize(UserDto value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(value, 6);
+        generator.writeFieldName(ID);
+        generator.writeString(value.getId());
+        generator.writeFieldName(NOME);
+        generator.writeString(value.getNome());
+        generator.writeFieldName(CPF);
+        generator.writeString(value.getCpf());
+        generator.writeFieldName(EMAIL);
+        generator.writeString(value.getEmail());
+        generator.writeFieldName(SENHA);
+        generator.writeString(value.getSenha());
+        generator.writeFieldName(TIPO_USUARIO);
+        UserDtoTypeSerializer.write(value.getTipoUsuario(), generator);
+        generator.writeEndObject();
+    }
+}
@@ -1,5 +1,8 @@
 package com.nttdata.user.api.data.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+@JsonSerialize(using = UserDtoTypeSerializer.class)
 public enum UserDtoType {
     CLIENTE, FORNECEDOR, ADMIN
 }
@@ -0,0 +1,43 @@
+package com.nttdata.user.api.data.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Escreve {@link UserDtoType} pelo nome, a partir de strings pré-codificadas por ordinal.
+ */
+public final class UserDtoTypeSerializer extends StdSerializer<UserDtoType> {
+
+    private static final SerializableString[] NAMES = names();
+
+    public UserDtoTypeSerializer() {
+        super(UserDtoType.class);
+    }
+
+    @Override
+    public void serialize(UserDtoType value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        write(value, generator);
+    }
+
+    static void write(UserDtoType value, JsonGenerator generator) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(NAMES[value.ordinal()]);
+        }
+    }
+
+    private static SerializableString[] names() {
+        UserDtoType[] values = UserDtoType.values();
+        SerializableString[] names = new SerializableString[values.length];
+        for (UserDtoType value : values) {
+            names[value.ordinal()] = new SerializedString(value.name());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,18 @@
+package com.nttdata.user.api.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class UserPageDto {
+
+    private List<UserPublicDto> items;
+
+    private String nextCursor;
+
+
+}
@@ -0,0 +1,28 @@
+package com.nttdata.user.api.data.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Usuário como é exposto em listagens: {@link UserDto} sem {@code senha}.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@JsonSerialize(using = UserPublicDtoSerializer.class)
+public class UserPublicDto {
+
+    private String id;
+
+    private String nome;
+
+    private String cpf;
+
+    private String email;
+
+    private UserDtoType tipoUsuario;
+
+
+}
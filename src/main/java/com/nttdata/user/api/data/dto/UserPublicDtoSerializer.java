@@ -0,0 +1,41 @@
+package com.nttdata.user.api.data.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Mesmo formato de {@link UserDtoSerializer}, sem o campo {@code senha}.
+ */
+public final class UserPublicDtoSerializer extends StdSerializer<UserPublicDto> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NOME = new SerializedString("nome");
+    private static final SerializableString CPF = new SerializedString("cpf");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString TIPO_USUARIO = new SerializedString("tipoUsuario");
+
+    public UserPublicDtoSerializer() {
+        super(UserPublicDto.class);
+    }
+
+    @Override
+    public void serialize(UserPublicDto value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(value, 5);
+        generator.writeFieldName(ID);
+        generator.writeString(value.getId());
+        generator.writeFieldName(NOME);
+        generator.writeString(value.getNome());
+        generator.writeFieldName(CPF);
+        generator.writeString(value.getCpf());
+        generator.writeFieldName(EMAIL);
+        generator.writeString(value.getEmail());
+        generator.writeFieldName(TIPO_USUARIO);
+        UserDtoTypeSerializer.write(value.getTipoUsuario(), generator);
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,16 @@
+package com.nttdata.user.api.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class UserRegistrationStatusDto {
+
+    private String id;
+
+    private UserRegistrationStatus status;
+
+
+}
@@ -4,12 +4,19 @@ import com.amazonaws.services.dynamodbv2.datamodeling.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 @Getter
 @Data
 @DynamoDBTable(tableName = "User")
 public class UserEntity {
 
+    public static final String TIPO_USUARIO_INDEX = "TipoUsuarioIndex";
+
+    /**
+     * Partições por tipo no {@value #TIPO_USUARIO_INDEX}. Mudar o valor exige regravar
+     * todos os usuários, já que o shard de cada um é derivado do id.
+     */
+    public static final int TIPO_SHARDS = 8;
+
     @DynamoDBHashKey(attributeName = "id")
     @DynamoDBAutoGeneratedKey
     private String id;
@@ -17,10 +24,10 @@ public class UserEntity {
     @DynamoDBAttribute
     private String nome;
 
-    @DynamoDBAttribute
+    @DynamoDBIndexHashKey(globalSecondaryIndexName = "CpfIndex", attributeName = "cpf")
     private String cpf;
 
-    @DynamoDBAttribute
+    @DynamoDBIndexHashKey(globalSecondaryIndexName = "EmailIndex", attributeName = "email")
     private String email;
 
     @DynamoDBAttribute
@@ -30,6 +37,28 @@ public class UserEntity {
     @DynamoDBTypeConvertedEnum
     private UserEntityType tipoUsuario;
 
+    /**
+     * Chave de partição do {@value #TIPO_USUARIO_INDEX}, derivada do tipo e do id;
+     * nula sem tipo, para o item ficar fora do índice.
+     */
+    @DynamoDBIndexHashKey(globalSecondaryIndexName = TIPO_USUARIO_INDEX, attributeName = "tipoShard")
+    public String getTipoShard() {
+        if (tipoUsuario == null) {
+            return null;
+        }
+        return tipoShard(tipoUsuario, id == null ? 0 : Math.floorMod(id.hashCode(), TIPO_SHARDS));
+    }
+
+    /**
+     * Calculado a partir de tipo e id; o valor lido do DynamoDB é ignorado.
+     */
+    public void setTipoShard(String tipoShard) {
+    }
+
+    public static String tipoShard(UserEntityType tipoUsuario, int shard) {
+        return tipoUsuario.name() + '#' + shard;
+    }
+
     public UserEntity(String id, String nome, String cpf, String email, String senha, UserEntityType tipoUsuario) {
         this.id = id;
         this.nome = nome;
@@ -41,8 +70,4 @@ public class UserEntity {
 
     public UserEntity() {
     }
-
-    public void setSenha(String senha) {
-        this.senha = new BCryptPasswordEncoder().encode(senha);
-    }
 }
@@ -2,13 +2,29 @@ package com.nttdata.user.api.data.mapper;
 
 import com.nttdata.user.api.data.dto.UserDto;
 import com.nttdata.user.api.data.dto.UserDtoType;
+import com.nttdata.user.api.data.dto.UserPublicDto;
 import com.nttdata.user.api.data.entity.UserEntity;
 import com.nttdata.user.api.data.entity.UserEntityType;
+import com.nttdata.user.api.repository.UserKeys;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Conversões entre entidade e DTOs, escritas à mão campo a campo. Os dois enums
+ * de tipo declaram as constantes em ordens diferentes, então a correspondência é
+ * feita pelo nome uma única vez, em tabelas indexadas pelo ordinal; uma constante
+ * sem par no outro enum falha na carga da classe, não na primeira requisição.
+ */
 @Component
 public class UserMapper {
 
+    private static final UserDtoType[] DTO_TYPES = dtoTypes();
+    private static final UserEntityType[] ENTITY_TYPES = entityTypes();
+
     public UserDto toDto(UserEntity userEntity) {
         if (userEntity == null) {
             return null;
@@ -18,22 +34,59 @@ public class UserMapper {
             userEntity.getNome(),
             userEntity.getCpf(),
             userEntity.getEmail(),
+            userEntity.getSenha(),
+            toDtoType(userEntity.getTipoUsuario())
+        );
+    }
 
-             userEntity.getSenha(),
+    /**
+     * Como {@link #toDto}, sem a senha: o tipo de retorno não tem o campo.
+     */
+    public UserPublicDto toPublicDto(UserEntity userEntity) {
+        if (userEntity == null) {
+            return null;
+        }
+        return new UserPublicDto(
+            userEntity.getId(),
+            userEntity.getNome(),
+            userEntity.getCpf(),
+            userEntity.getEmail(),
             toDtoType(userEntity.getTipoUsuario())
         );
     }
 
+    /**
+     * Usuário recém-cadastrado como é devolvido ao cliente, sem a senha já codificada.
+     */
+    public UserPublicDto toPublicDto(UserDto userDto) {
+        if (userDto == null) {
+            return null;
+        }
+        return new UserPublicDto(
+            userDto.getId(),
+            userDto.getNome(),
+            userDto.getCpf(),
+            userDto.getEmail(),
+            userDto.getTipoUsuario()
+        );
+    }
+
+    /**
+     * Para páginas e listagens, que nunca devem expor a senha.
+     */
+    public List<UserPublicDto> toPublicDtos(Collection<UserEntity> userEntities) {
+        List<UserPublicDto> userDtos = new ArrayList<>(userEntities.size());
+        for (UserEntity userEntity : userEntities) {
+            userDtos.add(toPublicDto(userEntity));
+        }
+        return userDtos;
+    }
+
     public UserDtoType toDtoType(UserEntityType userEntityType) {
         if (userEntityType == null) {
             throw new IllegalArgumentException("UserEntityType cannot be null");
         }
-
-        return switch (userEntityType) {
-            case CLIENTE -> UserDtoType.CLIENTE;
-            case FORNECEDOR -> UserDtoType.FORNECEDOR;
-            case ADMIN -> UserDtoType.ADMIN;
-        };
+        return DTO_TYPES[userEntityType.ordinal()];
     }
 
     public UserEntity toEntity(UserDto userDto) {
@@ -41,25 +94,57 @@ public class UserMapper {
             return null;
         }
 
+        // Gravados na forma das chaves de cache e das consultas: ver UserKeys.
         return new UserEntity(
             userDto.getId(),
             userDto.getNome(),
-            userDto.getCpf(),
-            userDto.getEmail(),
+            UserKeys.cpf(userDto.getCpf()),
+            UserKeys.email(userDto.getEmail()),
             userDto.getSenha(),
             toEntityType(userDto.getTipoUsuario())
         );
     }
 
+    /**
+     * Como {@link #toEntity}, para cadastro público: o id e o tipo vindos do
+     * cliente são ignorados. O id é sempre um UUID novo, para que ninguém escolha
+     * o id de uma reserva de CPF ou e-mail, e o usuário é sempre
+     * {@link UserEntityType#CLIENTE}. Promover a administrador é uma operação à
+     * parte, restrita a administradores.
+     */
+    public UserEntity toRegistrationEntity(UserDto userDto) {
+        return new UserEntity(
+            UUID.randomUUID().toString(),
+            userDto.getNome(),
+            UserKeys.cpf(userDto.getCpf()),
+            UserKeys.email(userDto.getEmail()),
+            userDto.getSenha(),
+            UserEntityType.CLIENTE
+        );
+    }
+
     public UserEntityType toEntityType(UserDtoType userDtoType) {
         if (userDtoType == null) {
             throw new IllegalArgumentException("UserDtoType cannot be null");
         }
+        return ENTITY_TYPES[userDtoType.ordinal()];
+    }
 
-        return switch (userDtoType) {
-            case CLIENTE -> UserEntityType.CLIENTE;
-            case FORNECEDOR -> UserEntityType.FORNECEDOR;
-            case ADMIN -> UserEntityType.ADMIN;
-        };
+    private static UserDtoType[] dtoTypes() {
+        UserEntityType[] entityTypes = UserEntityType.values();
+        UserDtoType[] table = new UserDtoType[entityTypes.length];
+        for (UserEntityType entityType : entityTypes) {
+            table[entityType.ordinal()] = UserDtoType.valueOf(entityType.name());
+        }
+        return table;
+    }
+
+    private static UserEntityType[] entityTypes() {
+        UserDtoType[] dtoTypes = UserDtoType.values();
+        UserEntityType[] table = new UserEntityType[dtoTypes.length];
+        for (UserDtoType dtoType : dtoTypes) {
+            table[dtoType.ordinal()] = UserEntityType.valueOf(dtoType.name());
+        }
+        return table;
     }
 }
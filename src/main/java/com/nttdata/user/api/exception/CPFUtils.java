@@ -2,47 +2,80 @@ package com.nttdata.user.api.exception;
 
 public class CPFUtils {
 
+    private static final int CPF_LENGTH = 11;
+
     public static boolean isValidCPF(String cpf) {
-        cpf = cpf.replaceAll("[^0-9]", "");
-        if (cpf.length() != 11) {
+        return isValidCPF((CharSequence) cpf);
+    }
+
+    /**
+     * Valida o CPF em uma única passada, sem alocar: aceita tanto o formato
+     * "529.982.247-25" quanto só dígitos, ignorando qualquer caractere que não
+     * seja dígito. {@code null} é inválido.
+     */
+    public static boolean isValidCPF(CharSequence cpf) {
+        if (cpf == null) {
             return false;
         }
+        int count = 0;
+        int first = -1;
+        boolean allDigitsAreEqual = true;
+        int sum1 = 0;
+        int sum2 = 0;
+        int checkDigit1 = 0;
+        int checkDigit2 = 0;
 
-        int[] digits = new int[11];
-        for (int i = 0; i < 11; i++) {
-            digits[i] = Integer.parseInt(cpf.substring(i, i + 1));
+        for (int i = 0, length = cpf.length(); i < length; i++) {
+            int digit = cpf.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                continue;
+            }
+            if (count == CPF_LENGTH) {
+                return false;
+            }
+            if (count == 0) {
+                first = digit;
+            } else if (digit != first) {
+                allDigitsAreEqual = false;
+            }
+            if (count < 9) {
+                sum1 += digit * (10 - count);
+                sum2 += digit * (11 - count);
+            } else if (count == 9) {
+                checkDigit1 = digit;
+                sum2 += digit * 2;
+            } else {
+                checkDigit2 = digit;
+            }
+            count++;
         }
 
-        if (allDigitsAreEqual(digits)) {
+        if (count != CPF_LENGTH || allDigitsAreEqual) {
             return false;
         }
-
-        int sum = calculateSum(digits, 10, 9);
-        int digit1 = calculateDigit(sum);
-
-        sum = calculateSum(digits, 11, 10);
-        int digit2 = calculateDigit(sum);
-
-        return digits[9] == digit1 && digits[10] == digit2;
+        return checkDigit1 == calculateDigit(sum1) && checkDigit2 == calculateDigit(sum2);
     }
 
-    private static boolean allDigitsAreEqual(int[] digits) {
-        for (int i = 1; i < digits.length; i++) {
-            if (digits[i] != digits[0]) {
-                return false;
-            }
+    /**
+     * Valida um lote de CPFs; {@code results[i]} recebe o resultado de
+     * {@code cpfs[i]}. O laço não aloca nem faz chamadas virtuais além de
+     * {@code charAt}, então pode ser dividido entre threads por faixas do array.
+     *
+     * @return quantidade de CPFs válidos
+     */
+    public static int validateAll(CharSequence[] cpfs, boolean[] results) {
+        if (results.length < cpfs.length) {
+            throw new IllegalArgumentException("results deve ter ao menos " + cpfs.length + " posições");
         }
-        return true;
-    }
-
-    private static int calculateSum(int[] digits, int startWeight, int end) {
-        int sum = 0;
-        int weight = startWeight;
-        for (int i = 0; i < end; i++) {
-            sum += digits[i] * weight;
-            weight--;
+        int valid = 0;
+        for (int i = 0; i < cpfs.length; i++) {
+            boolean result = isValidCPF(cpfs[i]);
+            results[i] = result;
+            if (result) {
+                valid++;
+            }
         }
-        return sum;
+        return valid;
     }
 
     private static int calculateDigit(int sum) {
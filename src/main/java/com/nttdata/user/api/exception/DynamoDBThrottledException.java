@@ -0,0 +1,8 @@
+package com.nttdata.user.api.exception;
+
+
+public class DynamoDBThrottledException extends RuntimeException {
+    public DynamoDBThrottledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.nttdata.user.api.exception;
+
+
+public class PasswordHashingRejectedException extends RuntimeException {
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
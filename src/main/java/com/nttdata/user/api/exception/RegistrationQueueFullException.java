@@ -0,0 +1,8 @@
+package com.nttdata.user.api.exception;
+
+
+public class RegistrationQueueFullException extends RuntimeException {
+    public RegistrationQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.nttdata.user.api.exception;
+
+/**
+ * CPF ou e-mail já pertence a outro usuário. Respondido como 409.
+ */
+public class UserAlreadyExistsException extends UserRegistrationException {
+
+    public static final String CPF = "cpf";
+    public static final String EMAIL = "email";
+    public static final String ID = "id";
+
+    private final String attribute;
+
+    public UserAlreadyExistsException(String attribute, String message) {
+        super(message);
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+}
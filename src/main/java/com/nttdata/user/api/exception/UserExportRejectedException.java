@@ -0,0 +1,8 @@
+package com.nttdata.user.api.exception;
+
+
+public class UserExportRejectedException extends RuntimeException {
+    public UserExportRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,58 @@
+package com.nttdata.user.api.repository;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Revogação de tokens de sessão compartilhada entre as instâncias. Cada token
+ * revogado é um item {@link UserKeys#revokedTokenId} na tabela {@code User}, com
+ * a expiração do token em {@value #EXPIRES_AT_ATTRIBUTE}, o atributo de TTL da
+ * tabela: o DynamoDB apaga o item depois que o token já não seria aceito.
+ */
+@Repository
+public class SessionRevocationRepository {
+
+    static final String EXPIRES_AT_ATTRIBUTE = "expiresAt";
+
+    private final AmazonDynamoDB amazonDynamoDB;
+
+    public SessionRevocationRepository(AmazonDynamoDB amazonDynamoDB) {
+        this.amazonDynamoDB = amazonDynamoDB;
+    }
+
+    /**
+     * Revoga o token se ainda não estiver revogado.
+     *
+     * @return {@code false} se o token já estava revogado, por esta ou outra instância
+     */
+    @Timed("user.repository")
+    public boolean revokeIfAbsent(String tokenId, Instant expiresAt) {
+        try {
+            amazonDynamoDB.putItem(request(tokenId, expiresAt)
+                .withConditionExpression(UserRegistrationRepository.NOT_EXISTS_CONDITION));
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    @Timed("user.repository")
+    public void revoke(String tokenId, Instant expiresAt) {
+        amazonDynamoDB.putItem(request(tokenId, expiresAt));
+    }
+
+    private static PutItemRequest request(String tokenId, Instant expiresAt) {
+        return new PutItemRequest()
+            .withTableName(UserScanRepository.TABLE_NAME)
+            .withItem(Map.of(
+                "id", new AttributeValue(UserKeys.revokedTokenId(tokenId)),
+                EXPIRES_AT_ATTRIBUTE, new AttributeValue().withN(Long.toString(expiresAt.getEpochSecond()))));
+    }
+}
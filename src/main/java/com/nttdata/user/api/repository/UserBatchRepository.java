@@ -0,0 +1,122 @@
+package com.nttdata.user.api.repository;
+
+import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.exception.UserAlreadyExistsException;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gravação de vários usuários de uma vez. O {@code BatchWriteItem} não aceita
+ * condições, então cada usuário vai na mesma {@code TransactWriteItems}
+ * condicional de {@link UserRegistrationRepository#create}, com as reservas de CPF
+ * e e-mail: a unicidade não depende de nenhuma verificação feita antes. As
+ * transações de um bloco saem em paralelo; as canceladas por conflito ou
+ * throttling e as que falharam são repetidas com backoff exponencial e jitter.
+ */
+@Repository
+public class UserBatchRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserBatchRepository.class);
+
+    /**
+     * Usuários por {@link #saveChunk}, cada um numa transação de até três itens.
+     */
+    public static final int MAX_USERS_PER_CHUNK = 8;
+
+    private static final String FAILED = "failed";
+
+    private final UserRegistrationRepository userRegistrationRepository;
+    private final ExecutorService writeExecutor;
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+
+    public UserBatchRepository(UserRegistrationRepository userRegistrationRepository,
+                               @Value("${user.batch.write.max-attempts:8}") int maxAttempts,
+                               @Value("${user.batch.write.base-backoff-ms:50}") long baseBackoffMillis) {
+        this.userRegistrationRepository = userRegistrationRepository;
+        this.writeExecutor = Executors.newFixedThreadPool(MAX_USERS_PER_CHUNK);
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMillis = baseBackoffMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writeExecutor.shutdown();
+    }
+
+    /**
+     * Grava até {@value #MAX_USERS_PER_CHUNK} usuários, que já devem ter id. Um
+     * usuário cujo id já está gravado (uma nova tentativa de algo já aplicado) conta
+     * como gravado.
+     */
+    @Timed("user.repository")
+    public UserChunkResult saveChunk(List<UserEntity> users) {
+        if (users.size() > MAX_USERS_PER_CHUNK) {
+            throw new IllegalArgumentException("saveChunk aceita no máximo " + MAX_USERS_PER_CHUNK + " usuários");
+        }
+        List<CompletableFuture<String>> writes = new ArrayList<>(users.size());
+        for (UserEntity user : users) {
+            writes.add(CompletableFuture.supplyAsync(() -> save(user), writeExecutor));
+        }
+
+        Map<String, String> duplicates = new HashMap<>();
+        Set<String> failed = new HashSet<>();
+        for (int i = 0; i < users.size(); i++) {
+            String outcome = writes.get(i).join();
+            if (FAILED.equals(outcome)) {
+                failed.add(users.get(i).getId());
+            } else if (outcome != null) {
+                duplicates.put(users.get(i).getId(), outcome);
+            }
+        }
+        return new UserChunkResult(duplicates, failed);
+    }
+
+    /**
+     * @return {@code null} se gravou, o campo duplicado, ou {@link #FAILED}
+     */
+    private String save(UserEntity user) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                userRegistrationRepository.create(user);
+                return null;
+            } catch (UserAlreadyExistsException e) {
+                return UserAlreadyExistsException.ID.equals(e.getAttribute()) ? null : e.getAttribute();
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    logger.warn("Usuário {} não gravado depois de {} tentativas: {}", user.getId(), attempt, e.getMessage());
+                    return FAILED;
+                }
+            }
+            if (!backoff(attempt)) {
+                return FAILED;
+            }
+        }
+    }
+
+    private boolean backoff(int attempt) {
+        long ceiling = baseBackoffMillis << Math.min(attempt, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.nttdata.user.api.repository;
+
+public final class UserCacheNames {
+
+    public static final String BY_EMAIL = "users.byEmail";
+    public static final String BY_CPF = "users.byCpf";
+    public static final String EXISTS_BY_EMAIL = "users.existsByEmail";
+    public static final String EXISTS_BY_CPF = "users.existsByCpf";
+    public static final String CREDENTIALS_BY_EMAIL = "users.credentialsByEmail";
+
+    private UserCacheNames() {
+    }
+}
@@ -0,0 +1,15 @@
+package com.nttdata.user.api.repository;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resultado de {@link UserBatchRepository#saveChunk} por id de usuário; quem não
+ * aparece em nenhum dos dois foi gravado.
+ *
+ * @param duplicates id do usuário para o campo já reservado por outro usuário,
+ *                   {@code UserAlreadyExistsException.CPF} ou {@code EMAIL}
+ * @param failed     ids não gravados depois de todas as tentativas
+ */
+public record UserChunkResult(Map<String, String> duplicates, Set<String> failed) {
+}
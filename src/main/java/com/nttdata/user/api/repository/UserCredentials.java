@@ -0,0 +1,17 @@
+package com.nttdata.user.api.repository;
+
+import com.nttdata.user.api.data.entity.UserEntityType;
+
+/**
+ * Projeção do usuário com o necessário para validar um login e emitir a sessão.
+ */
+public record UserCredentials(String id, String senha, UserEntityType tipoUsuario) {
+
+    public UserCredentials(String id, String senha) {
+        this(id, senha, null);
+    }
+
+    public boolean isAdmin() {
+        return tipoUsuario == UserEntityType.ADMIN;
+    }
+}
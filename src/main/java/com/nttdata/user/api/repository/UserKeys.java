@@ -0,0 +1,72 @@
+package com.nttdata.user.api.repository;
+
+import java.util.Locale;
+
+/**
+ * Forma canônica de e-mail e CPF usada como chave nas estruturas em memória
+ * que ficam na frente do DynamoDB e nos itens de unicidade da tabela.
+ */
+public final class UserKeys {
+
+    /**
+     * Atributo dos itens de unicidade que aponta para o id do usuário dono do CPF ou e-mail.
+     */
+    public static final String GUARD_OWNER_ATTRIBUTE = "userId";
+
+    private static final String CPF_GUARD_PREFIX = "CPF#";
+    private static final String EMAIL_GUARD_PREFIX = "EMAIL#";
+    private static final String REVOKED_TOKEN_PREFIX = "REVOKED#";
+
+    private UserKeys() {
+    }
+
+    public static String email(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static String cpf(String cpf) {
+        if (cpf == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(11);
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    /**
+     * Id do item que reserva o CPF na tabela {@code User}.
+     */
+    public static String cpfGuardId(String cpf) {
+        return CPF_GUARD_PREFIX + cpf(cpf);
+    }
+
+    /**
+     * Id do item que reserva o e-mail na tabela {@code User}.
+     */
+    public static String emailGuardId(String email) {
+        return EMAIL_GUARD_PREFIX + email(email);
+    }
+
+    /**
+     * Id do item que marca um token de sessão como revogado na tabela {@code User}.
+     */
+    public static String revokedTokenId(String tokenId) {
+        return REVOKED_TOKEN_PREFIX + tokenId;
+    }
+
+    public static boolean isGuardId(String id) {
+        return id != null && (id.startsWith(CPF_GUARD_PREFIX) || id.startsWith(EMAIL_GUARD_PREFIX));
+    }
+
+    /**
+     * Itens da tabela {@code User} que não são usuários: reservas e revogações.
+     */
+    public static boolean isAuxiliaryId(String id) {
+        return isGuardId(id) || (id != null && id.startsWith(REVOKED_TOKEN_PREFIX));
+    }
+}
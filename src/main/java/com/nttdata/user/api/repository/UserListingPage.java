@@ -0,0 +1,11 @@
+package com.nttdata.user.api.repository;
+
+import com.nttdata.user.api.data.entity.UserEntity;
+
+import java.util.List;
+
+/**
+ * Página de {@link UserListingRepository#findByTipo}, em ordem de id.
+ */
+public record UserListingPage(List<UserEntity> users, boolean hasMore) {
+}
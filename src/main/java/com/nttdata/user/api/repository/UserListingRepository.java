@@ -0,0 +1,195 @@
+package com.nttdata.user.api.repository;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.data.entity.UserEntityType;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Listagem de usuários por tipo no {@code TipoUsuarioIndex}, paginada pelo id.
+ * <p>
+ * Cada tipo é espalhado em {@link UserEntity#TIPO_SHARDS} partições, então uma
+ * página consulta todos os shards em paralelo a partir do último id visto e
+ * intercala os resultados. Um shard que devolveu menos que o pedido está
+ * esgotado até o fim; um shard truncado limita a página ao último id que ele
+ * entregou, para que nenhum id menor fique para trás; se a página não encheu, uma
+ * nova rodada continua desse id. Assim a página continua em ordem de id e o id
+ * do último usuário basta como cursor.
+ */
+@Repository
+public class UserListingRepository {
+
+    private static final String PROJECTION = "#id, #nome, #cpf, #email, #tipoUsuario";
+    private static final Map<String, String> ATTRIBUTE_NAMES = Map.of(
+        "#shard", "tipoShard", "#id", "id", "#nome", "nome", "#cpf", "cpf", "#email", "email", "#tipoUsuario", "tipoUsuario");
+
+    private final AmazonDynamoDB amazonDynamoDB;
+    private final DynamoDBMapperTableModel<UserEntity> tableModel;
+    private final ExecutorService queryExecutor;
+
+    public UserListingRepository(AmazonDynamoDB amazonDynamoDB,
+                                 DynamoDBMapperConfig dynamoDBMapperConfig,
+                                 @Value("${user.listing.query-parallelism:16}") int queryParallelism) {
+        this.amazonDynamoDB = amazonDynamoDB;
+        this.tableModel = new DynamoDBMapper(amazonDynamoDB, dynamoDBMapperConfig).getTableModel(UserEntity.class);
+        this.queryExecutor = Executors.newFixedThreadPool(queryParallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        queryExecutor.shutdown();
+    }
+
+    /**
+     * @param afterId último id da página anterior, ou {@code null} para a primeira página
+     * @param limit   máximo de usuários na página
+     */
+    @Timed("user.repository")
+    public UserListingPage findByTipo(UserEntityType tipoUsuario, String afterId, int limit) {
+        List<UserEntity> users = new ArrayList<>(limit);
+        String lastId = afterId;
+        boolean hasMore;
+        do {
+            hasMore = queryShards(tipoUsuario, lastId, limit - users.size(), users);
+            lastId = users.isEmpty() ? afterId : users.get(users.size() - 1).getId();
+        } while (hasMore && users.size() < limit);
+        return new UserListingPage(users, hasMore);
+    }
+
+    /**
+     * Uma rodada de consultas, uma por shard, acrescentando até {@code limit} usuários em ordem de id.
+     *
+     * @return se ainda pode haver usuários depois do último acrescentado
+     */
+    private boolean queryShards(UserEntityType tipoUsuario, String afterId, int limit, List<UserEntity> users) {
+        // Com ids uniformes cada shard entrega ~limit/shards; o dobro reduz as
+        // rodadas extras quando um shard truncado cedo limita a rodada.
+        int shardLimit = Math.max(1, (2 * limit + UserEntity.TIPO_SHARDS - 1) / UserEntity.TIPO_SHARDS);
+        List<CompletableFuture<QueryResult>> queries = new ArrayList<>(UserEntity.TIPO_SHARDS);
+        for (int shard = 0; shard < UserEntity.TIPO_SHARDS; shard++) {
+            String shardKey = UserEntity.tipoShard(tipoUsuario, shard);
+            queries.add(CompletableFuture.supplyAsync(() -> queryShard(shardKey, afterId, shardLimit), queryExecutor));
+        }
+
+        List<UserEntity> merged = new ArrayList<>();
+        String bound = null;
+        for (CompletableFuture<QueryResult> query : queries) {
+            QueryResult result = join(query);
+            for (Map<String, AttributeValue> item : result.getItems()) {
+                merged.add(tableModel.unconvert(item));
+            }
+            Map<String, AttributeValue> lastEvaluatedKey = result.getLastEvaluatedKey();
+            if (lastEvaluatedKey != null && !lastEvaluatedKey.isEmpty()) {
+                String lastId = lastEvaluatedKey.get("id").getS();
+                if (bound == null || lastId.compareTo(bound) < 0) {
+                    bound = lastId;
+                }
+            }
+        }
+
+        String lastAllowed = bound;
+        merged.removeIf(user -> lastAllowed != null && user.getId().compareTo(lastAllowed) > 0);
+        merged.sort(Comparator.comparing(UserEntity::getId));
+        users.addAll(merged.size() > limit ? merged.subList(0, limit) : merged);
+        return bound != null || merged.size() > limit;
+    }
+
+    /**
+     * Grava o {@code tipoShard} de um usuário salvo antes do {@code TipoUsuarioIndex}.
+     * Condicional: não recria um usuário apagado nem sobrescreve um shard já gravado.
+     *
+     * @return {@code false} se o usuário não existe mais ou já tinha shard
+     */
+    @Timed("user.repository")
+    public boolean backfillTipoShard(String id, String tipoShard) {
+        try {
+            amazonDynamoDB.updateItem(new UpdateItemRequest()
+                .withTableName(UserScanRepository.TABLE_NAME)
+                .withKey(Map.of("id", new AttributeValue(id)))
+                .withUpdateExpression("SET #shard = :shard")
+                .withConditionExpression("attribute_exists(#id) AND attribute_not_exists(#shard)")
+                .withExpressionAttributeNames(Map.of("#id", "id", "#shard", "tipoShard"))
+                .withExpressionAttributeValues(Map.of(":shard", new AttributeValue(tipoShard))));
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Troca o tipo do usuário junto com o shard do {@value UserEntity#TIPO_USUARIO_INDEX}.
+     * A condição em {@code cpf} deixa de fora reservas e revogações, que não têm o atributo.
+     *
+     * @return o usuário atualizado, ou vazio se o id não for de um usuário
+     */
+    @Timed("user.repository")
+    public Optional<UserEntity> updateTipo(String id, UserEntityType tipoUsuario) {
+        String tipoShard = new UserEntity(id, null, null, null, null, tipoUsuario).getTipoShard();
+        try {
+            UpdateItemResult result = amazonDynamoDB.updateItem(new UpdateItemRequest()
+                .withTableName(UserScanRepository.TABLE_NAME)
+                .withKey(Map.of("id", new AttributeValue(id)))
+                .withUpdateExpression("SET #tipoUsuario = :tipoUsuario, #shard = :shard")
+                .withConditionExpression("attribute_exists(#id) AND attribute_exists(#cpf)")
+                .withExpressionAttributeNames(Map.of(
+                    "#id", "id", "#cpf", "cpf", "#tipoUsuario", "tipoUsuario", "#shard", "tipoShard"))
+                .withExpressionAttributeValues(Map.of(
+                    ":tipoUsuario", new AttributeValue(tipoUsuario.name()), ":shard", new AttributeValue(tipoShard)))
+                .withReturnValues(ReturnValue.ALL_NEW));
+            return Optional.of(tableModel.unconvert(result.getAttributes()));
+        } catch (ConditionalCheckFailedException e) {
+            return Optional.empty();
+        }
+    }
+
+    private QueryResult queryShard(String shardKey, String afterId, int limit) {
+        QueryRequest request = new QueryRequest()
+            .withTableName(UserScanRepository.TABLE_NAME)
+            .withIndexName(UserEntity.TIPO_USUARIO_INDEX)
+            .withKeyConditionExpression("#shard = :shard")
+            .withProjectionExpression(PROJECTION)
+            .withExpressionAttributeNames(ATTRIBUTE_NAMES)
+            .withExpressionAttributeValues(Map.of(":shard", new AttributeValue(shardKey)))
+            .withScanIndexForward(true)
+            .withLimit(limit);
+        if (afterId != null) {
+            Map<String, AttributeValue> startKey = new HashMap<>();
+            startKey.put("tipoShard", new AttributeValue(shardKey));
+            startKey.put("id", new AttributeValue(afterId));
+            request.setExclusiveStartKey(startKey);
+        }
+        return amazonDynamoDB.query(request);
+    }
+
+    private static QueryResult join(CompletableFuture<QueryResult> query) {
+        try {
+            return query.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.nttdata.user.api.repository;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.Select;
+import com.nttdata.user.api.data.entity.UserEntityType;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Consultas enxutas nos índices globais: existência com {@code Select=COUNT}
+ * e credenciais de login com projeção de {@code id} e {@code senha}, sem
+ * carregar nem converter o {@code UserEntity} inteiro.
+ * <p>
+ * O cadastro grava CPF e e-mail na forma de {@link UserKeys}, que é também a chave
+ * dos caches, e as consultas usam essa forma. Itens gravados antes da normalização
+ * guardam o valor como foi digitado; se a forma normalizada não acha nada e o
+ * argumento é diferente dela, a consulta é repetida com o argumento.
+ */
+@Repository
+public class UserLookupRepository {
+
+    private final AmazonDynamoDB amazonDynamoDB;
+
+    public UserLookupRepository(AmazonDynamoDB amazonDynamoDB) {
+        this.amazonDynamoDB = amazonDynamoDB;
+    }
+
+    @Timed("user.repository")
+    @Cacheable(cacheNames = UserCacheNames.EXISTS_BY_CPF, key = "T(com.nttdata.user.api.repository.UserKeys).cpf(#p0)", condition = "#p0 != null")
+    public boolean existsByCpf(String cpf) {
+        return count("CpfIndex", "cpf", UserKeys.cpf(cpf)) > 0
+            || (!cpf.equals(UserKeys.cpf(cpf)) && count("CpfIndex", "cpf", cpf) > 0);
+    }
+
+    @Timed("user.repository")
+    @Cacheable(cacheNames = UserCacheNames.EXISTS_BY_EMAIL, key = "T(com.nttdata.user.api.repository.UserKeys).email(#p0)", condition = "#p0 != null")
+    public boolean existsByEmail(String email) {
+        return count("EmailIndex", "email", UserKeys.email(email)) > 0
+            || (!email.equals(UserKeys.email(email)) && count("EmailIndex", "email", email) > 0);
+    }
+
+    /**
+     * O {@code EmailIndex} projeta todos os atributos, então a leitura não volta à tabela.
+     */
+    @Timed("user.repository")
+    @Cacheable(cacheNames = UserCacheNames.CREDENTIALS_BY_EMAIL, key = "T(com.nttdata.user.api.repository.UserKeys).email(#p0)", condition = "#p0 != null")
+    public Optional<UserCredentials> findCredentialsByEmail(String email) {
+        Optional<UserCredentials> credentials = credentials(UserKeys.email(email));
+        if (credentials.isEmpty() && !email.equals(UserKeys.email(email))) {
+            return credentials(email);
+        }
+        return credentials;
+    }
+
+    private Optional<UserCredentials> credentials(String email) {
+        QueryResult result = amazonDynamoDB.query(indexQuery("EmailIndex", email)
+            .withProjectionExpression("#id, #senha, #tipoUsuario")
+            .withExpressionAttributeNames(Map.of("#key", "email", "#id", "id", "#senha", "senha", "#tipoUsuario", "tipoUsuario")));
+        if (result.getItems() == null || result.getItems().isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, AttributeValue> item = result.getItems().get(0);
+        AttributeValue senha = item.get("senha");
+        AttributeValue tipoUsuario = item.get("tipoUsuario");
+        return Optional.of(new UserCredentials(item.get("id").getS(), senha == null ? null : senha.getS(),
+            tipoUsuario == null ? null : UserEntityType.valueOf(tipoUsuario.getS())));
+    }
+
+    private int count(String indexName, String attribute, String value) {
+        QueryResult result = amazonDynamoDB.query(indexQuery(indexName, value)
+            .withSelect(Select.COUNT)
+            .withExpressionAttributeNames(Map.of("#key", attribute)));
+        return result.getCount() == null ? 0 : result.getCount();
+    }
+
+    private static QueryRequest indexQuery(String indexName, String value) {
+        return new QueryRequest()
+            .withTableName(UserScanRepository.TABLE_NAME)
+            .withIndexName(indexName)
+            .withKeyConditionExpression("#key = :value")
+            .withExpressionAttributeValues(Map.of(":value", new AttributeValue(value)))
+            .withLimit(1);
+    }
+}
@@ -0,0 +1,118 @@
+package com.nttdata.user.api.repository;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.CancellationReason;
+import com.amazonaws.services.dynamodbv2.model.Put;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.exception.UserAlreadyExistsException;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cria o usuário e reserva CPF e e-mail numa única {@code TransactWriteItems}.
+ * As reservas são itens da própria tabela {@code User} com id
+ * {@link UserKeys#cpfGuardId} e {@link UserKeys#emailGuardId}, sem os atributos
+ * dos índices, e todos os puts exigem {@code attribute_not_exists(id)}: se o
+ * CPF ou o e-mail já estiver reservado, nada é gravado.
+ */
+@Repository
+public class UserRegistrationRepository {
+
+    static final String NOT_EXISTS_CONDITION = "attribute_not_exists(id)";
+    static final String CONDITIONAL_CHECK_FAILED = "ConditionalCheckFailed";
+    static final int MAX_CLIENT_REQUEST_TOKEN_LENGTH = 36;
+
+    private final AmazonDynamoDB amazonDynamoDB;
+    private final DynamoDBMapperTableModel<UserEntity> tableModel;
+
+    public UserRegistrationRepository(AmazonDynamoDB amazonDynamoDB, DynamoDBMapperConfig dynamoDBMapperConfig) {
+        this.amazonDynamoDB = amazonDynamoDB;
+        this.tableModel = new DynamoDBMapper(amazonDynamoDB, dynamoDBMapperConfig).getTableModel(UserEntity.class);
+    }
+
+    /**
+     * Grava o usuário, gerando o id se necessário.
+     *
+     * @throws UserAlreadyExistsException se o CPF ou o e-mail já estiver reservado
+     * @throws IllegalArgumentException   se o id for de uma reserva ou revogação, ou
+     *                                    não couber no token idempotente da transação
+     */
+    @Timed("user.repository")
+    @Caching(evict = {
+        @CacheEvict(cacheNames = {UserCacheNames.BY_CPF, UserCacheNames.EXISTS_BY_CPF},
+            key = "T(com.nttdata.user.api.repository.UserKeys).cpf(#p0.cpf)", condition = "#p0.cpf != null"),
+        @CacheEvict(cacheNames = {UserCacheNames.BY_EMAIL, UserCacheNames.EXISTS_BY_EMAIL, UserCacheNames.CREDENTIALS_BY_EMAIL},
+            key = "T(com.nttdata.user.api.repository.UserKeys).email(#p0.email)", condition = "#p0.email != null")
+    })
+    public UserEntity create(UserEntity user) {
+        if (user.getId() == null) {
+            user.setId(UUID.randomUUID().toString());
+        }
+        if (UserKeys.isAuxiliaryId(user.getId()) || user.getId().length() > MAX_CLIENT_REQUEST_TOKEN_LENGTH) {
+            throw new IllegalArgumentException("Id de usuário inválido");
+        }
+        List<TransactWriteItem> writes = new ArrayList<>(3);
+        writes.add(putIfAbsent(tableModel.convert(user)));
+        writes.add(putIfAbsent(guard(UserKeys.cpfGuardId(user.getCpf()), user.getId())));
+        if (user.getEmail() != null) {
+            writes.add(putIfAbsent(guard(UserKeys.emailGuardId(user.getEmail()), user.getId())));
+        }
+
+        // O token torna idempotentes as novas tentativas do SDK: uma transação que
+        // foi aplicada mas cuja resposta se perdeu não vira um falso conflito.
+        TransactWriteItemsRequest request = new TransactWriteItemsRequest()
+            .withTransactItems(writes)
+            .withClientRequestToken(user.getId());
+        try {
+            amazonDynamoDB.transactWriteItems(request);
+        } catch (TransactionCanceledException e) {
+            throw conflict(e);
+        }
+        return user;
+    }
+
+    static Map<String, AttributeValue> guard(String guardId, String userId) {
+        return Map.of(
+            "id", new AttributeValue(guardId),
+            UserKeys.GUARD_OWNER_ATTRIBUTE, new AttributeValue(userId));
+    }
+
+    private static TransactWriteItem putIfAbsent(Map<String, AttributeValue> item) {
+        return new TransactWriteItem().withPut(new Put()
+            .withTableName(UserScanRepository.TABLE_NAME)
+            .withItem(item)
+            .withConditionExpression(NOT_EXISTS_CONDITION));
+    }
+
+    private static RuntimeException conflict(TransactionCanceledException e) {
+        List<CancellationReason> reasons = e.getCancellationReasons();
+        if (reasons != null) {
+            // O próprio id já gravado é uma nova tentativa de algo já aplicado: as
+            // reservas também são dele, então não é conflito de CPF nem de e-mail.
+            if (!reasons.isEmpty() && CONDITIONAL_CHECK_FAILED.equals(reasons.get(0).getCode())) {
+                return new UserAlreadyExistsException(UserAlreadyExistsException.ID, "Usuário já cadastrado");
+            }
+            if (reasons.size() > 1 && CONDITIONAL_CHECK_FAILED.equals(reasons.get(1).getCode())) {
+                return new UserAlreadyExistsException(UserAlreadyExistsException.CPF, "CPF já cadastrado");
+            }
+            if (reasons.size() > 2 && CONDITIONAL_CHECK_FAILED.equals(reasons.get(2).getCode())) {
+                return new UserAlreadyExistsException(UserAlreadyExistsException.EMAIL, "E-mail já cadastrado");
+            }
+        }
+        return e;
+    }
+}
@@ -1,19 +1,42 @@
 package com.nttdata.user.api.repository;
 
 import com.nttdata.user.api.data.entity.UserEntity;
-import org.socialsignin.spring.data.dynamodb.repository.EnableScan;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.repository.CrudRepository;
 
 import java.util.Optional;
 
-@EnableScan
+/**
+ * Buscas por e-mail e CPF são resolvidas como Query nos índices globais
+ * {@code EmailIndex} e {@code CpfIndex}. Scans ficam desabilitados: qualquer
+ * método derivado que não tenha um índice correspondente falha em vez de
+ * varrer a tabela inteira.
+ * <p>
+ * As buscas passam pelos caches de {@link UserCacheNames}, com chave na forma
+ * normalizada de {@link UserKeys}, e recebem o argumento já nessa forma, que é a
+ * gravada pelo cadastro; {@link #save} invalida as entradas do usuário.
+ * Verificações de existência e credenciais de login ficam no
+ * {@link UserLookupRepository}, que não carrega o item inteiro.
+ */
 public interface UserRepository extends CrudRepository<UserEntity,Long> {
 
+    /**
+     * O {@code CpfIndex} projeta apenas as chaves, então a entidade retornada
+     * traz somente {@code id} e {@code cpf}.
+     */
+    @Cacheable(cacheNames = UserCacheNames.BY_CPF, key = "T(com.nttdata.user.api.repository.UserKeys).cpf(#p0)", condition = "#p0 != null")
     Optional<UserEntity> findByCpf(String cpf);
 
+    @Cacheable(cacheNames = UserCacheNames.BY_EMAIL, key = "T(com.nttdata.user.api.repository.UserKeys).email(#p0)", condition = "#p0 != null")
     Optional<UserEntity> findByEmail(String email);
 
-    boolean existsByCpf(String cpf);
-
-    boolean existsByEmail(String email);
+    @Caching(evict = {
+        @CacheEvict(cacheNames = {UserCacheNames.BY_CPF, UserCacheNames.EXISTS_BY_CPF},
+            key = "T(com.nttdata.user.api.repository.UserKeys).cpf(#p0.cpf)", condition = "#p0.cpf != null"),
+        @CacheEvict(cacheNames = {UserCacheNames.BY_EMAIL, UserCacheNames.EXISTS_BY_EMAIL, UserCacheNames.CREDENTIALS_BY_EMAIL},
+            key = "T(com.nttdata.user.api.repository.UserKeys).email(#p0.email)", condition = "#p0.email != null")
+    })
+    <S extends UserEntity> S save(S entity);
 }
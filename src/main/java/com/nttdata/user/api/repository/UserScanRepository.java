@@ -0,0 +1,82 @@
+package com.nttdata.user.api.repository;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Scans paginados e segmentados da tabela {@code User}. Não é usado no
+ * caminho de login/cadastro; serve para processos em background que precisam
+ * percorrer a tabela inteira com um segmento por thread.
+ */
+@Repository
+public class UserScanRepository {
+
+    public static final String TABLE_NAME = "User";
+
+    private final AmazonDynamoDB amazonDynamoDB;
+
+    public UserScanRepository(AmazonDynamoDB amazonDynamoDB) {
+        this.amazonDynamoDB = amazonDynamoDB;
+    }
+
+    @Timed("user.repository")
+    public ScanResult scanPage(int segment, int totalSegments, Map<String, AttributeValue> exclusiveStartKey,
+                               String projectionExpression, Map<String, String> attributeNames, int pageSize) {
+        return scanPage(segment, totalSegments, exclusiveStartKey, projectionExpression, attributeNames, pageSize, true);
+    }
+
+    /**
+     * Leitura eventualmente consistente custa metade das RCUs; serve para exportações,
+     * que já são um retrato aproximado da tabela.
+     */
+    @Timed("user.repository")
+    public ScanResult scanPage(int segment, int totalSegments, Map<String, AttributeValue> exclusiveStartKey,
+                               String projectionExpression, Map<String, String> attributeNames, int pageSize,
+                               boolean consistentRead) {
+        ScanRequest request = new ScanRequest()
+            .withTableName(TABLE_NAME)
+            .withSegment(segment)
+            .withTotalSegments(totalSegments)
+            .withExclusiveStartKey(exclusiveStartKey)
+            .withProjectionExpression(projectionExpression)
+            .withExpressionAttributeNames(attributeNames)
+            .withLimit(pageSize)
+            .withConsistentRead(consistentRead);
+        return amazonDynamoDB.scan(request);
+    }
+
+    /**
+     * Percorre um segmento inteiro com leitura eventualmente consistente: quem varre a
+     * tabela toda só precisa de um retrato aproximado, pela metade das RCUs.
+     */
+    @Timed("user.repository")
+    public void scanSegment(int segment, int totalSegments, String projectionExpression,
+                            Map<String, String> attributeNames, int pageSize,
+                            Consumer<Map<String, AttributeValue>> itemConsumer) {
+        Map<String, AttributeValue> exclusiveStartKey = null;
+        do {
+            ScanResult page = scanPage(segment, totalSegments, exclusiveStartKey, projectionExpression, attributeNames, pageSize, false);
+            page.getItems().forEach(itemConsumer);
+            exclusiveStartKey = page.getLastEvaluatedKey();
+        } while (exclusiveStartKey != null && !exclusiveStartKey.isEmpty());
+    }
+
+    /**
+     * Contagem aproximada mantida pelo DynamoDB (atualizada a cada ~6 horas).
+     */
+    @Timed("user.repository")
+    public long approximateItemCount() {
+        Long itemCount = amazonDynamoDB.describeTable(new DescribeTableRequest().withTableName(TABLE_NAME))
+            .getTable()
+            .getItemCount();
+        return itemCount == null ? 0L : itemCount;
+    }
+}
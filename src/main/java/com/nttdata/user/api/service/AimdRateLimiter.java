@@ -0,0 +1,134 @@
+package com.nttdata.user.api.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket cuja taxa se ajusta por AIMD: cresce {@code increase} unidades/s
+ * por segundo com sucessos, até {@code maxRate}, e cai para {@code rate * decrease}
+ * a cada throttling, sem passar de {@code minRate}. O aumento vale no máximo uma
+ * vez por segundo, contado do último ajuste: uma rajada de sucessos não devolve de
+ * uma vez a taxa que um throttling cortou. O bucket guarda no máximo um segundo
+ * da taxa atual. Pensado para casar as chamadas ao DynamoDB com a capacidade
+ * provisionada, com {@code maxRate} em RCU ou WCU.
+ */
+public class AimdRateLimiter {
+
+    static final long INCREASE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double minRate;
+    private final double maxRate;
+    private final double increase;
+    private final double decrease;
+    private final LongSupplier nanoClock;
+
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+    private long lastAdjustment;
+
+    public AimdRateLimiter(double maxRate, double minRate, double increase, double decrease) {
+        this(maxRate, minRate, increase, decrease, System::nanoTime);
+    }
+
+    AimdRateLimiter(double maxRate, double minRate, double increase, double decrease, LongSupplier nanoClock) {
+        if (minRate <= 0 || maxRate < minRate || decrease <= 0 || decrease >= 1) {
+            throw new IllegalArgumentException("Parâmetros do limitador AIMD inválidos");
+        }
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.increase = increase;
+        this.decrease = decrease;
+        this.nanoClock = nanoClock;
+        this.rate = maxRate;
+        this.tokens = maxRate;
+        this.lastRefill = nanoClock.getAsLong();
+        this.lastAdjustment = lastRefill;
+    }
+
+    /**
+     * Consome {@code permits} e espera o necessário para não passar da taxa atual.
+     */
+    public void acquire(double permits) throws InterruptedException {
+        long waitNanos = reserve(permits);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Como {@link #acquire}, mas desiste sem consumir nada se a espera passar de {@code maxWait}.
+     *
+     * @return {@code false} se desistiu
+     */
+    public boolean tryAcquire(double permits, Duration maxWait) throws InterruptedException {
+        long waitNanos = tryReserve(permits, maxWait.toNanos());
+        if (waitNanos < 0) {
+            return false;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return true;
+    }
+
+    /**
+     * Desconta {@code permits} já gastos, sem esperar; o débito atrasa os próximos pedidos.
+     */
+    public synchronized void charge(double permits) {
+        refill();
+        tokens -= permits;
+    }
+
+    /**
+     * @return nanos de espera, ou -1 sem consumir se a espera passaria de {@code maxWaitNanos}
+     */
+    synchronized long tryReserve(double permits, long maxWaitNanos) {
+        refill();
+        double remaining = tokens - permits;
+        long waitNanos = remaining >= 0 ? 0 : (long) Math.ceil(-remaining / rate * TimeUnit.SECONDS.toNanos(1));
+        if (waitNanos > maxWaitNanos) {
+            return -1;
+        }
+        tokens = remaining;
+        return waitNanos;
+    }
+
+    /**
+     * Consome {@code permits}, ficando em débito se faltar saldo.
+     *
+     * @return nanos até o débito ser pago, ou 0
+     */
+    synchronized long reserve(double permits) {
+        refill();
+        tokens -= permits;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / rate * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public synchronized void onSuccess() {
+        long now = nanoClock.getAsLong();
+        if (rate >= maxRate || now - lastAdjustment < INCREASE_INTERVAL_NANOS) {
+            return;
+        }
+        rate = Math.min(maxRate, rate + increase);
+        lastAdjustment = now;
+    }
+
+    public synchronized void onThrottle() {
+        refill();
+        rate = Math.max(minRate, rate * decrease);
+        tokens = Math.min(tokens, rate);
+        lastAdjustment = lastRefill;
+    }
+
+    public synchronized double rate() {
+        return rate;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(rate, tokens + (now - lastRefill) * rate / TimeUnit.SECONDS.toNanos(1));
+        lastRefill = now;
+    }
+}
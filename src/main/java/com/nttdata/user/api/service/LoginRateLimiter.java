@@ -0,0 +1,141 @@
+package com.nttdata.user.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nttdata.user.api.repository.UserKeys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita tentativas de login por conta (e-mail normalizado) e por IP de origem,
+ * antes de qualquer BCrypt ou leitura no DynamoDB.
+ * <p>
+ * Cada chave tem um token bucket no formato GCRA: o estado é um único
+ * {@link AtomicLong} com o instante teórico da próxima chegada, atualizado por CAS,
+ * sem lock. Os buckets ficam em caches Caffeine, cujo mapa concorrente é
+ * particionado por hash, com tamanho máximo e expiração por inatividade; um bucket
+ * expirado volta cheio, então {@code idle-timeout} deve ser maior que o período de
+ * recarga.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+    private final Limit accountLimit;
+    private final Limit ipLimit;
+    private final LongSupplier nanoClock;
+    private final Counter accountThrottled;
+    private final Counter ipThrottled;
+
+    @Autowired
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${user.login.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${user.login.rate-limit.account.capacity:5}") int accountCapacity,
+                            @Value("${user.login.rate-limit.account.refill-period:1m}") Duration accountRefillPeriod,
+                            @Value("${user.login.rate-limit.ip.capacity:20}") int ipCapacity,
+                            @Value("${user.login.rate-limit.ip.refill-period:1m}") Duration ipRefillPeriod,
+                            @Value("${user.login.rate-limit.maximum-keys:100000}") long maximumKeys,
+                            @Value("${user.login.rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+        this(meterRegistry, enabled, accountCapacity, accountRefillPeriod, ipCapacity, ipRefillPeriod,
+            maximumKeys, idleTimeout, System::nanoTime);
+    }
+
+    LoginRateLimiter(MeterRegistry meterRegistry, boolean enabled,
+                     int accountCapacity, Duration accountRefillPeriod,
+                     int ipCapacity, Duration ipRefillPeriod,
+                     long maximumKeys, Duration idleTimeout, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.accountLimit = new Limit(accountCapacity, accountRefillPeriod, maximumKeys, idleTimeout);
+        this.ipLimit = new Limit(ipCapacity, ipRefillPeriod, maximumKeys, idleTimeout);
+        this.nanoClock = nanoClock;
+        this.accountThrottled = Counter.builder("user.login.throttled")
+            .description("Logins recusados pelo limitador antes de chegar ao serviço")
+            .tag("scope", "account")
+            .register(meterRegistry);
+        this.ipThrottled = Counter.builder("user.login.throttled")
+            .description("Logins recusados pelo limitador antes de chegar ao serviço")
+            .tag("scope", "ip")
+            .register(meterRegistry);
+        Gauge.builder("user.login.rate-limit.buckets", accountLimit.buckets, Cache::estimatedSize)
+            .tag("scope", "account")
+            .register(meterRegistry);
+        Gauge.builder("user.login.rate-limit.buckets", ipLimit.buckets, Cache::estimatedSize)
+            .tag("scope", "ip")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Consome uma tentativa do IP e outra da conta.
+     *
+     * @return vazio se o login pode prosseguir; caso contrário, quanto esperar
+     *         até a próxima tentativa ser aceita
+     */
+    public Optional<Duration> tryAcquire(String email, String clientIp) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        long now = nanoClock.getAsLong();
+        if (clientIp != null) {
+            long waitNanos = ipLimit.tryAcquire(clientIp, now);
+            if (waitNanos > 0) {
+                ipThrottled.increment();
+                return Optional.of(Duration.ofNanos(waitNanos));
+            }
+        }
+        String account = UserKeys.email(email);
+        if (account != null && !account.isEmpty()) {
+            long waitNanos = accountLimit.tryAcquire(account, now);
+            if (waitNanos > 0) {
+                accountThrottled.increment();
+                return Optional.of(Duration.ofNanos(waitNanos));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static final class Limit {
+
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+        private final Cache<String, AtomicLong> buckets;
+
+        private Limit(int capacity, Duration refillPeriod, long maximumKeys, Duration idleTimeout) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("Capacidade do limitador de login deve ser positiva");
+            }
+            this.emissionIntervalNanos = refillPeriod.toNanos() / capacity;
+            this.burstToleranceNanos = emissionIntervalNanos * capacity;
+            this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        }
+
+        /**
+         * @return 0 se aceito, ou os nanos até a próxima tentativa aceita
+         */
+        private long tryAcquire(String key, long now) {
+            AtomicLong theoreticalArrival = buckets.get(key, ignored -> new AtomicLong(now));
+            while (true) {
+                long current = theoreticalArrival.get();
+                long next = Math.max(current, now) + emissionIntervalNanos;
+                long excess = next - now - burstToleranceNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.nttdata.user.api.service;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.nttdata.user.api.repository.UserKeys;
+import com.nttdata.user.api.repository.UserScanRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bloom filters com os CPFs e e-mails já cadastrados, locais a esta instância.
+ * O filtro só conhece o que estava na tabela no último rebuild e o que foi
+ * cadastrado por esta instância depois; um cadastro feito em outra instância só
+ * aparece no próximo rebuild. Por isso um "não" do filtro não é definitivo: ele
+ * só pode dispensar a consulta ao DynamoDB onde a gravação seguinte é condicional
+ * às reservas de CPF e e-mail, que pegam o duplicado. Enquanto o primeiro build
+ * não termina, toda consulta segue para o repositório.
+ */
+@Component
+public class RegisteredUserFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegisteredUserFilter.class);
+    private static final int SCAN_PAGE_SIZE = 1000;
+
+    private final UserScanRepository userScanRepository;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final int scanSegments;
+    private final AtomicBoolean rebuildInProgress = new AtomicBoolean();
+
+    private volatile Filters current;
+    private volatile Filters rebuilding;
+
+    public RegisteredUserFilter(UserScanRepository userScanRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${user.registry.filter.enabled:true}") boolean enabled,
+                                @Value("${user.registry.filter.expected-insertions:1000000}") long expectedInsertions,
+                                @Value("${user.registry.filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                @Value("${user.registry.filter.scan-segments:4}") int scanSegments) {
+        this.userScanRepository = userScanRepository;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.scanSegments = Math.max(1, scanSegments);
+
+        Gauge.builder("user.registry.filter.ready", this, f -> f.current == null ? 0 : 1).register(meterRegistry);
+        Gauge.builder("user.registry.filter.bytes", this, f -> f.current == null ? 0 : f.current.sizeInBytes())
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("user.registry.filter.expected.fpp", this, f -> f.current == null ? 1 : f.current.expectedFalsePositiveRate())
+            .register(meterRegistry);
+    }
+
+    /**
+     * {@code true} se o CPF não está no filtro desta instância; ver a ressalva da classe.
+     */
+    public boolean definitelyAbsentCpf(String cpf) {
+        Filters filters = current;
+        return filters != null && cpf != null && !filters.cpfs().mightContain(UserKeys.cpf(cpf));
+    }
+
+    public boolean definitelyAbsentEmail(String email) {
+        Filters filters = current;
+        return filters != null && email != null && !filters.emails().mightContain(UserKeys.email(email));
+    }
+
+    public void put(String cpf, String email) {
+        Filters filters = current;
+        if (filters != null) {
+            filters.put(cpf, email);
+        }
+        Filters next = rebuilding;
+        if (next != null) {
+            next.put(cpf, email);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            CompletableFuture.runAsync(this::rebuild);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${user.registry.filter.rebuild-interval:PT6H}",
+        fixedDelayString = "${user.registry.filter.rebuild-interval:PT6H}")
+    public void rebuild() {
+        if (!enabled || !rebuildInProgress.compareAndSet(false, true)) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(scanSegments);
+        try {
+            long capacity = Math.max(expectedInsertions, userScanRepository.approximateItemCount() * 2);
+            Filters fresh = new Filters(new BloomFilter(capacity, falsePositiveRate), new BloomFilter(capacity, falsePositiveRate));
+            rebuilding = fresh;
+
+            List<CompletableFuture<Void>> segments = new ArrayList<>(scanSegments);
+            for (int segment = 0; segment < scanSegments; segment++) {
+                int currentSegment = segment;
+                segments.add(CompletableFuture.runAsync(() -> userScanRepository.scanSegment(
+                    currentSegment, scanSegments, "#cpf, #email", Map.of("#cpf", "cpf", "#email", "email"),
+                    SCAN_PAGE_SIZE, item -> fresh.put(value(item, "cpf"), value(item, "email"))), executor));
+            }
+            CompletableFuture.allOf(segments.toArray(new CompletableFuture[0])).join();
+
+            current = fresh;
+            logger.info("Filtro de usuários cadastrados reconstruído em {} ms ({} bytes, fpp esperada {})",
+                (System.nanoTime() - startedAt) / 1_000_000, fresh.sizeInBytes(), fresh.expectedFalsePositiveRate());
+        } catch (Exception e) {
+            logger.warn("Falha ao reconstruir o filtro de usuários cadastrados; mantendo o filtro anterior", e);
+        } finally {
+            rebuilding = null;
+            executor.shutdown();
+            rebuildInProgress.set(false);
+        }
+    }
+
+    private static String value(Map<String, AttributeValue> item, String attribute) {
+        AttributeValue value = item.get(attribute);
+        return value == null ? null : value.getS();
+    }
+
+    private record Filters(BloomFilter cpfs, BloomFilter emails) {
+
+        void put(String cpf, String email) {
+            if (cpf != null) {
+                cpfs.put(UserKeys.cpf(cpf));
+            }
+            if (email != null) {
+                emails.put(UserKeys.email(email));
+            }
+        }
+
+        long sizeInBytes() {
+            return cpfs.sizeInBytes() + emails.sizeInBytes();
+        }
+
+        double expectedFalsePositiveRate() {
+            return Math.max(cpfs.expectedFalsePositiveRate(), emails.expectedFalsePositiveRate());
+        }
+    }
+}
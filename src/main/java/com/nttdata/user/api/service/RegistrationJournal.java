@@ -0,0 +1,139 @@
+package com.nttdata.user.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.user.api.data.entity.UserEntity;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arquivo local, só de acréscimo, com os cadastros aceitos e ainda não gravados no
+ * DynamoDB. Cada linha é {@code A <usuário em JSON>} quando o cadastro é aceito ou
+ * {@code D <id>} quando ele sai da fila (gravado ou descartado); na partida, os
+ * {@code A} sem {@code D} voltam para a fila.
+ * <p>
+ * O {@code fsync} é agrupado: quem chega enquanto outro sincroniza espera e,
+ * se a sua linha já foi coberta, retorna sem um novo {@code force}. Quando a fila
+ * esvazia o arquivo é truncado.
+ */
+final class RegistrationJournal implements Closeable {
+
+    private static final String ACCEPTED = "A ";
+    private static final String DONE = "D ";
+
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+    private volatile long written;
+    private long synced;
+
+    RegistrationJournal(Path path, ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.written = channel.size();
+        this.synced = written;
+    }
+
+    /**
+     * Cadastros aceitos e não concluídos, na ordem em que foram aceitos. Uma última
+     * linha incompleta (queda no meio da escrita) é ignorada.
+     */
+    static List<UserEntity> replay(Path path, ObjectMapper objectMapper) throws IOException {
+        Map<String, UserEntity> pending = new LinkedHashMap<>();
+        if (!Files.exists(path)) {
+            return new ArrayList<>();
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(ACCEPTED)) {
+                    try {
+                        UserEntity user = objectMapper.readValue(line.substring(ACCEPTED.length()), UserEntity.class);
+                        pending.put(user.getId(), user);
+                    } catch (JsonProcessingException e) {
+                        // linha truncada
+                    }
+                } else if (line.startsWith(DONE)) {
+                    pending.remove(line.substring(DONE.length()));
+                }
+            }
+        }
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * @return posição a passar para {@link #sync} para garantir esta linha em disco
+     */
+    long accepted(UserEntity user) throws IOException {
+        return append(ACCEPTED + objectMapper.writeValueAsString(user));
+    }
+
+    long done(String id) throws IOException {
+        return append(DONE + id);
+    }
+
+    long position() {
+        return written;
+    }
+
+    void sync(long position) throws IOException {
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long target = written;
+            channel.force(false);
+            synced = target;
+        }
+    }
+
+    /**
+     * Esvazia o arquivo se nada foi escrito desde {@code position}.
+     */
+    boolean truncateIfUnchanged(long position) throws IOException {
+        synchronized (writeLock) {
+            if (written != position || position == 0) {
+                return false;
+            }
+            channel.truncate(0);
+            written = 0;
+        }
+        synchronized (syncLock) {
+            synced = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long append(String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((line + '\n').getBytes(StandardCharsets.UTF_8));
+        synchronized (writeLock) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            written += buffer.limit();
+            return written;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.nttdata.user.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nttdata.user.api.data.dto.UserRegistrationStatus;
+import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.exception.RegistrationQueueFullException;
+import com.nttdata.user.api.repository.UserBatchRepository;
+import com.nttdata.user.api.repository.UserChunkResult;
+import com.nttdata.user.api.repository.UserKeys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Modo write-behind do cadastro ({@code user.registration.write-behind.enabled}).
+ * <p>
+ * O cadastro validado, com a senha já em BCrypt, é gravado no
+ * {@link RegistrationJournal} e entra numa fila limitada; o cliente recebe 202 e
+ * acompanha o status pelo id. Uma thread grava a fila em blocos de até
+ * {@value UserBatchRepository#MAX_USERS_PER_CHUNK} usuários, na taxa de um
+ * {@link AimdRateLimiter} com teto na capacidade de escrita da tabela: um pico de
+ * cadastros vira fila em vez de throttling.
+ * <p>
+ * Cada usuário é gravado pela transação condicional de
+ * {@link UserBatchRepository#saveChunk}, e não num {@code BatchWriteItem}, que não
+ * aceita condições: o bloco agrupa as transações, mas cada uma custa o dobro de
+ * WCU, e a taxa é cobrada assim. Um CPF ou e-mail reservado por outro
+ * cadastro depois do 202 termina como {@link UserRegistrationStatus#FAILED}. Os
+ * CPFs e e-mails na fila também ficam reservados nesta instância até a gravação,
+ * para recusar logo no envio o que certamente falharia.
+ * <p>
+ * Um erro inesperado na thread de gravação devolve o lote à fila; se ela ainda
+ * assim morrer, {@link RegistrationWriteBehindHealthIndicator} passa a DOWN.
+ */
+@Component
+public class RegistrationWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistrationWriteBehind.class);
+
+    private final boolean enabled;
+    private final UserBatchRepository userBatchRepository;
+    private final RegisteredUserFilter registeredUserFilter;
+    private final ObjectMapper objectMapper;
+    private final Path journalPath;
+    private final int queueCapacity;
+    private final Duration flushInterval;
+    private final int maxAttempts;
+    private final AimdRateLimiter rateLimiter;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Set<String> reservedKeys = ConcurrentHashMap.newKeySet();
+    private final Cache<String, UserRegistrationStatus> statuses;
+    private final Counter committed;
+    private final Counter failed;
+
+    private RegistrationJournal journal;
+    private Semaphore capacity;
+    private int overflow;
+    private Thread committer;
+    private volatile boolean running;
+
+    @Autowired
+    public RegistrationWriteBehind(UserBatchRepository userBatchRepository,
+                                   RegisteredUserFilter registeredUserFilter,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${user.registration.write-behind.enabled:false}") boolean enabled,
+                                   @Value("${user.registration.write-behind.journal:data/registration.journal}") Path journalPath,
+                                   @Value("${user.registration.write-behind.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${user.registration.write-behind.flush-interval:100ms}") Duration flushInterval,
+                                   @Value("${user.registration.write-behind.max-attempts:20}") int maxAttempts,
+                                   @Value("${user.registration.write-behind.write-capacity:20}") double writeCapacity,
+                                   @Value("${user.registration.write-behind.status-ttl:1h}") Duration statusTtl) {
+        this(userBatchRepository, registeredUserFilter, objectMapper, meterRegistry, enabled, journalPath, queueCapacity,
+            flushInterval, maxAttempts, new AimdRateLimiter(writeCapacity, Math.max(1, writeCapacity / 20), 1, 0.5), statusTtl);
+    }
+
+    RegistrationWriteBehind(UserBatchRepository userBatchRepository, RegisteredUserFilter registeredUserFilter,
+                            ObjectMapper objectMapper, MeterRegistry meterRegistry, boolean enabled, Path journalPath,
+                            int queueCapacity, Duration flushInterval, int maxAttempts, AimdRateLimiter rateLimiter,
+                            Duration statusTtl) {
+        this.enabled = enabled;
+        this.userBatchRepository = userBatchRepository;
+        this.registeredUserFilter = registeredUserFilter;
+        this.objectMapper = objectMapper;
+        this.journalPath = journalPath;
+        this.queueCapacity = queueCapacity;
+        this.flushInterval = flushInterval;
+        this.maxAttempts = maxAttempts;
+        this.rateLimiter = rateLimiter;
+        this.statuses = Caffeine.newBuilder()
+            .expireAfterWrite(statusTtl)
+            .build();
+        this.committed = Counter.builder("user.registration.write-behind.committed").register(meterRegistry);
+        this.failed = Counter.builder("user.registration.write-behind.failed").register(meterRegistry);
+        Gauge.builder("user.registration.write-behind.queue", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("user.registration.write-behind.rate", rateLimiter, AimdRateLimiter::rate)
+            .description("Taxa atual de escrita, em WCU/s")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Reenfileira o que ficou no journal e inicia a gravação em background.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        List<UserEntity> replayed = RegistrationJournal.replay(journalPath, objectMapper);
+        journal = new RegistrationJournal(journalPath, objectMapper);
+        // Um journal maior que a fila (capacidade reduzida, ou backlog de uma parada
+        // longa) começa sem vagas; os excedentes não devolvem vaga ao terminar.
+        overflow = Math.max(0, replayed.size() - queueCapacity);
+        capacity = new Semaphore(Math.max(0, queueCapacity - replayed.size()));
+        if (overflow > 0) {
+            logger.warn("Journal com {} cadastros pendentes, acima da capacidade da fila ({}); novos cadastros "
+                + "serão recusados até {} deles serem gravados", replayed.size(), queueCapacity, overflow);
+        }
+        for (UserEntity user : replayed) {
+            reserve(user.getCpf(), user.getEmail());
+            statuses.put(user.getId(), UserRegistrationStatus.PENDING);
+            queue.add(new Pending(user, 0));
+        }
+        if (!replayed.isEmpty()) {
+            logger.info("Reenfileirados {} cadastros pendentes do journal", replayed.size());
+        }
+        running = true;
+        committer = new Thread(this::run, "registration-write-behind");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Espera a fila esvaziar por até {@code flush-interval} x 100; o que sobrar continua no journal.
+     */
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        if (committer == null) {
+            return;
+        }
+        running = false;
+        committer.join(flushInterval.multipliedBy(100).toMillis());
+        committer.interrupt();
+        journal.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserva CPF e e-mail contra outro cadastro em andamento nesta instância.
+     *
+     * @return {@code false} se algum dos dois já estiver reservado
+     */
+    public boolean reserve(String cpf, String email) {
+        String cpfKey = UserKeys.cpfGuardId(cpf);
+        if (!reservedKeys.add(cpfKey)) {
+            return false;
+        }
+        if (email != null && !reservedKeys.add(UserKeys.emailGuardId(email))) {
+            reservedKeys.remove(cpfKey);
+            return false;
+        }
+        return true;
+    }
+
+    public void release(String cpf, String email) {
+        reservedKeys.remove(UserKeys.cpfGuardId(cpf));
+        if (email != null) {
+            reservedKeys.remove(UserKeys.emailGuardId(email));
+        }
+    }
+
+    /**
+     * Aceita o usuário, já com id, senha codificada e CPF/e-mail reservados, e
+     * retorna depois de o journal estar em disco.
+     *
+     * @throws RegistrationQueueFullException se a fila estiver cheia
+     */
+    public void submit(UserEntity user) {
+        if (!running) {
+            throw new IllegalStateException("Cadastro write-behind desabilitado");
+        }
+        if (!capacity.tryAcquire()) {
+            throw new RegistrationQueueFullException("Fila de cadastros cheia");
+        }
+        try {
+            journal.sync(journal.accepted(user));
+        } catch (IOException e) {
+            capacity.release();
+            throw new UncheckedIOException("Erro ao gravar journal de cadastros: " + e.getMessage(), e);
+        }
+        statuses.put(user.getId(), UserRegistrationStatus.PENDING);
+        queue.add(new Pending(user, 0));
+    }
+
+    public Optional<UserRegistrationStatus> status(String id) {
+        return Optional.ofNullable(statuses.getIfPresent(id));
+    }
+
+    private void run() {
+        List<Pending> chunk = new ArrayList<>(UserBatchRepository.MAX_USERS_PER_CHUNK);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                chunk.add(first);
+                queue.drainTo(chunk, UserBatchRepository.MAX_USERS_PER_CHUNK - 1);
+                commit(chunk);
+                compactIfIdle();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Um erro inesperado não para a gravação: o que o lote não chegou a
+                // concluir volta para a fila e conta como tentativa.
+                logger.error("Erro na gravação write-behind de cadastros", e);
+                chunk.forEach(this::retry);
+            } finally {
+                chunk.clear();
+            }
+        }
+    }
+
+    /**
+     * {@code false} se o modo está ligado e a thread de gravação morreu: os
+     * cadastros continuam aceitos, mas ninguém os grava.
+     */
+    public boolean isCommitterAlive() {
+        return !enabled || committer != null && committer.isAlive();
+    }
+
+    public int queueSize() {
+        return queue.size();
+    }
+
+    private void commit(List<Pending> chunk) throws InterruptedException {
+        List<UserEntity> users = new ArrayList<>(chunk.size());
+        int writeUnits = 0;
+        for (Pending pending : chunk) {
+            users.add(pending.user());
+            // Escrita transacional custa o dobro: 2 WCU por item.
+            writeUnits += pending.user().getEmail() == null ? 4 : 6;
+        }
+        rateLimiter.acquire(writeUnits);
+
+        UserChunkResult written;
+        try {
+            written = userBatchRepository.saveChunk(users);
+        } catch (RuntimeException e) {
+            logger.warn("Erro ao gravar lote de {} cadastros: {}", users.size(), e.getMessage());
+            rateLimiter.onThrottle();
+            chunk.forEach(this::retry);
+            chunk.clear();
+            return;
+        }
+        if (written.failed().isEmpty()) {
+            rateLimiter.onSuccess();
+        } else {
+            rateLimiter.onThrottle();
+        }
+        // Cada cadastro sai do lote ao ser concluído; se algo falhar no meio, run()
+        // reenfileira só o que sobrou.
+        for (Iterator<Pending> iterator = chunk.iterator(); iterator.hasNext(); ) {
+            Pending pending = iterator.next();
+            UserEntity user = pending.user();
+            if (written.failed().contains(user.getId())) {
+                retry(pending);
+            } else if (written.duplicates().containsKey(user.getId())) {
+                logger.warn("Cadastro {} recusado: {} já cadastrado", user.getId(), written.duplicates().get(user.getId()));
+                finish(pending, UserRegistrationStatus.FAILED);
+                failed.increment();
+            } else {
+                registeredUserFilter.put(user.getCpf(), user.getEmail());
+                finish(pending, UserRegistrationStatus.CREATED);
+                committed.increment();
+            }
+            iterator.remove();
+        }
+    }
+
+    private void retry(Pending pending) {
+        if (pending.attempts() + 1 >= maxAttempts) {
+            logger.error("Cadastro {} descartado depois de {} tentativas", pending.user().getId(), maxAttempts);
+            finish(pending, UserRegistrationStatus.FAILED);
+            failed.increment();
+        } else {
+            queue.add(new Pending(pending.user(), pending.attempts() + 1));
+        }
+    }
+
+    private void finish(Pending pending, UserRegistrationStatus status) {
+        UserEntity user = pending.user();
+        statuses.put(user.getId(), status);
+        release(user.getCpf(), user.getEmail());
+        try {
+            // Sem fsync: se a marca se perder, a regravação na partida é idempotente.
+            journal.done(user.getId());
+        } catch (IOException e) {
+            logger.warn("Erro ao marcar cadastro {} no journal: {}", user.getId(), e.getMessage());
+        }
+        if (overflow > 0) {
+            overflow--;
+        } else {
+            capacity.release();
+        }
+    }
+
+    private void compactIfIdle() {
+        long position = journal.position();
+        if (capacity.availablePermits() != queueCapacity) {
+            return;
+        }
+        try {
+            journal.truncateIfUnchanged(position);
+        } catch (IOException e) {
+            logger.warn("Erro ao truncar journal de cadastros: {}", e.getMessage());
+        }
+    }
+
+    private record Pending(UserEntity user, int attempts) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.nttdata.user.api.service;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Saúde do cadastro write-behind em {@code /actuator/health}: DOWN se o modo
+ * está ligado e a thread de gravação não está mais rodando.
+ */
+@Component
+public class RegistrationWriteBehindHealthIndicator implements HealthIndicator {
+
+    private final RegistrationWriteBehind registrationWriteBehind;
+
+    public RegistrationWriteBehindHealthIndicator(RegistrationWriteBehind registrationWriteBehind) {
+        this.registrationWriteBehind = registrationWriteBehind;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = registrationWriteBehind.isCommitterAlive() ? Health.up() : Health.down();
+        return health
+            .withDetail("enabled", registrationWriteBehind.isEnabled())
+            .withDetail("queue", registrationWriteBehind.queueSize())
+            .build();
+    }
+}
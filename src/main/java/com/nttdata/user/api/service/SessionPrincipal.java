@@ -0,0 +1,7 @@
+package com.nttdata.user.api.service;
+
+/**
+ * Usuário autenticado e o papel gravado no token de sessão.
+ */
+public record SessionPrincipal(String userId, boolean admin) {
+}
@@ -0,0 +1,248 @@
+package com.nttdata.user.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nttdata.user.api.repository.SessionRevocationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Tokens de sessão opacos assinados com HMAC-SHA256. A validação do token de acesso
+ * só recalcula a assinatura e confere a expiração e o cache local de revogação, sem
+ * BCrypt nem DynamoDB.
+ * <p>
+ * Formato: {@code base64url(tipo:usuário:expiração:id:papel).base64url(hmac)}, com
+ * papel {@code ADMIN} ou vazio; tokens emitidos antes do papel, sem o último campo,
+ * valem como de usuário comum. O token de acesso é curto; o de renovação é trocado a cada uso e o anterior fica revogado.
+ * A revogação de tokens de renovação fica no {@link SessionRevocationRepository},
+ * compartilhado entre as instâncias, e a troca é condicional: um token de renovação
+ * só é usado uma vez, em qualquer instância, e continua revogado mesmo que saia do
+ * cache local. A revogação de tokens de acesso é só local; em outra instância, ou
+ * depois de sair do cache, o token revogado vale até expirar, no máximo
+ * {@code access-ttl}.
+ */
+@Component
+public class SessionTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionTokenService.class);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String ACCESS = "A";
+    private static final String REFRESH = "R";
+    private static final String ADMIN = "ADMIN";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Mac prototypeMac;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+    private final SessionRevocationRepository sessionRevocationRepository;
+    private final Cache<String, Instant> revoked;
+
+    @Autowired
+    public SessionTokenService(SessionRevocationRepository sessionRevocationRepository,
+                               @Value("${user.session.secret:}") String secret,
+                               @Value("${user.session.access-ttl:15m}") Duration accessTtl,
+                               @Value("${user.session.refresh-ttl:7d}") Duration refreshTtl,
+                               @Value("${user.session.revocation.maximum-size:100000}") long revocationMaximumSize) {
+        this(sessionRevocationRepository, secret, accessTtl, refreshTtl, revocationMaximumSize, Clock.systemUTC());
+    }
+
+    SessionTokenService(SessionRevocationRepository sessionRevocationRepository, String secret, Duration accessTtl,
+                        Duration refreshTtl, long revocationMaximumSize, Clock clock) {
+        this.sessionRevocationRepository = sessionRevocationRepository;
+        this.key = new SecretKeySpec(secretBytes(secret), HMAC_ALGORITHM);
+        this.prototypeMac = newMac();
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+        this.clock = clock;
+        this.revoked = Caffeine.newBuilder()
+            .maximumSize(revocationMaximumSize)
+            .expireAfter(new UntilTokenExpires())
+            .build();
+    }
+
+    public SessionTokens issue(String userId) {
+        return issue(new SessionPrincipal(userId, false));
+    }
+
+    /**
+     * Emite o par com o papel do usuário; a renovação mantém o papel até o logout.
+     */
+    public SessionTokens issue(SessionPrincipal principal) {
+        Instant now = clock.instant();
+        Instant accessExpiresAt = now.plus(accessTtl);
+        Instant refreshExpiresAt = now.plus(refreshTtl);
+        return new SessionTokens(sign(ACCESS, principal, accessExpiresAt), accessExpiresAt,
+            sign(REFRESH, principal, refreshExpiresAt), refreshExpiresAt);
+    }
+
+    /**
+     * @return o id do usuário se o token de acesso for válido
+     */
+    public Optional<String> verifyAccess(String token) {
+        return verifyPrincipal(token).map(SessionPrincipal::userId);
+    }
+
+    /**
+     * @return o usuário e o papel se o token de acesso for válido
+     */
+    public Optional<SessionPrincipal> verifyPrincipal(String token) {
+        return parse(token, ACCESS).map(Claims::principal);
+    }
+
+    /**
+     * Troca um token de renovação válido por um novo par; o token usado é revogado
+     * em todas as instâncias.
+     */
+    public Optional<SessionTokens> refresh(String refreshToken) {
+        Optional<Claims> claims = parse(refreshToken, REFRESH);
+        if (claims.isEmpty()) {
+            return Optional.empty();
+        }
+        String tokenId = claims.get().tokenId();
+        if (revoked.asMap().putIfAbsent(tokenId, claims.get().expiresAt()) != null) {
+            return Optional.empty(); // renovação concorrente com o mesmo token
+        }
+        boolean firstUse;
+        try {
+            firstUse = sessionRevocationRepository.revokeIfAbsent(tokenId, claims.get().expiresAt());
+        } catch (RuntimeException e) {
+            revoked.invalidate(tokenId); // nada foi gravado; o cliente pode tentar de novo
+            throw e;
+        }
+        if (!firstUse) {
+            return Optional.empty(); // já usado ou revogado em outra instância
+        }
+        return Optional.of(issue(claims.get().principal()));
+    }
+
+    /**
+     * Revoga um token de acesso ou de renovação; tokens inválidos são ignorados.
+     */
+    public void revoke(String token) {
+        parse(token, null).ifPresent(claims -> {
+            revoked.put(claims.tokenId(), claims.expiresAt());
+            if (REFRESH.equals(claims.type())) {
+                sessionRevocationRepository.revoke(claims.tokenId(), claims.expiresAt());
+            }
+        });
+    }
+
+    private String sign(String type, SessionPrincipal principal, Instant expiresAt) {
+        byte[] tokenId = new byte[12];
+        random.nextBytes(tokenId);
+        String payload = ENCODER.encodeToString((type + ":" + principal.userId() + ":" + expiresAt.getEpochSecond() + ":"
+            + ENCODER.encodeToString(tokenId) + ":" + (principal.admin() ? ADMIN : "")).getBytes(StandardCharsets.UTF_8));
+        return payload + "." + ENCODER.encodeToString(hmac(payload));
+    }
+
+    private Optional<Claims> parse(String token, String expectedType) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, dot);
+        try {
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, hmac(payload))) {
+                return Optional.empty();
+            }
+            String[] fields = new String(DECODER.decode(payload), StandardCharsets.UTF_8).split(":", -1);
+            if (fields.length < 4 || fields.length > 5 || (expectedType != null && !expectedType.equals(fields[0]))) {
+                return Optional.empty();
+            }
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(fields[2]));
+            if (!clock.instant().isBefore(expiresAt) || revoked.getIfPresent(fields[3]) != null) {
+                return Optional.empty();
+            }
+            boolean admin = fields.length == 5 && ADMIN.equals(fields[4]);
+            return Optional.of(new Claims(fields[0], fields[1], expiresAt, fields[3], admin));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * {@link Mac} não é thread-safe; clonar o protótipo já inicializado evita refazer o
+     * key schedule e não prende instâncias a threads (inclusive virtuais).
+     */
+    private byte[] hmac(String payload) {
+        try {
+            return ((Mac) prototypeMac.clone()).doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException e) {
+            return newMac().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(HMAC_ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Erro ao inicializar HMAC de sessão: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] secretBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            logger.warn("user.session.secret não configurado; usando chave aleatória, válida só nesta instância");
+            byte[] generated = new byte[32];
+            new SecureRandom().nextBytes(generated);
+            return generated;
+        }
+        byte[] decoded = Base64.getDecoder().decode(secret.trim());
+        if (decoded.length < 32) {
+            throw new IllegalArgumentException("user.session.secret deve ter ao menos 256 bits em Base64");
+        }
+        return decoded;
+    }
+
+    private record Claims(String type, String userId, Instant expiresAt, String tokenId, boolean admin) {
+
+        SessionPrincipal principal() {
+            return new SessionPrincipal(userId, admin);
+        }
+    }
+
+    private final class UntilTokenExpires implements Expiry<String, Instant> {
+
+        @Override
+        public long expireAfterCreate(String tokenId, Instant expiresAt, long currentTime) {
+            return Math.max(0, Duration.between(clock.instant(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenId, Instant expiresAt, long currentTime, long currentDuration) {
+            return expireAfterCreate(tokenId, expiresAt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenId, Instant expiresAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
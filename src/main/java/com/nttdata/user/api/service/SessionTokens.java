@@ -0,0 +1,9 @@
+package com.nttdata.user.api.service;
+
+import java.time.Instant;
+
+/**
+ * Par de tokens emitido no login e a cada renovação.
+ */
+public record SessionTokens(String accessToken, Instant accessExpiresAt, String refreshToken, Instant refreshExpiresAt) {
+}
@@ -0,0 +1,110 @@
+package com.nttdata.user.api.service;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.data.entity.UserEntityType;
+import com.nttdata.user.api.repository.UserKeys;
+import com.nttdata.user.api.repository.UserListingRepository;
+import com.nttdata.user.api.repository.UserScanRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Migração dos usuários gravados antes do {@code TipoUsuarioIndex}: sem
+ * {@code tipoShard} eles não aparecem na listagem por tipo. Percorre a tabela e
+ * grava o shard de cada usuário que não o tem, com escrita condicional, então
+ * rodar de novo ou em duas instâncias ao mesmo tempo não causa dano.
+ * <p>
+ * Desligada por padrão; no deploy que cria o índice, ligue
+ * {@code user.listing.backfill.enabled} em uma única instância até o log de
+ * conclusão. As escritas passam pelo limitador de capacidade do cliente DynamoDB.
+ */
+@Component
+public class TipoShardBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(TipoShardBackfill.class);
+    private static final int SCAN_PAGE_SIZE = 500;
+
+    private final UserScanRepository userScanRepository;
+    private final UserListingRepository userListingRepository;
+    private final boolean enabled;
+    private final int scanSegments;
+
+    public TipoShardBackfill(UserScanRepository userScanRepository,
+                             UserListingRepository userListingRepository,
+                             @Value("${user.listing.backfill.enabled:false}") boolean enabled,
+                             @Value("${user.listing.backfill.scan-segments:4}") int scanSegments) {
+        this.userScanRepository = userScanRepository;
+        this.userListingRepository = userListingRepository;
+        this.enabled = enabled;
+        this.scanSegments = Math.max(1, scanSegments);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            CompletableFuture.runAsync(this::run);
+        }
+    }
+
+    /**
+     * @return quantos usuários receberam o shard
+     */
+    public long run() {
+        long startedAt = System.nanoTime();
+        AtomicLong updated = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(scanSegments);
+        try {
+            List<CompletableFuture<Void>> segments = new ArrayList<>(scanSegments);
+            for (int segment = 0; segment < scanSegments; segment++) {
+                int currentSegment = segment;
+                segments.add(CompletableFuture.runAsync(() -> userScanRepository.scanSegment(
+                    currentSegment, scanSegments, "#id, #tipoUsuario, #shard",
+                    Map.of("#id", "id", "#tipoUsuario", "tipoUsuario", "#shard", "tipoShard"),
+                    SCAN_PAGE_SIZE, item -> {
+                        if (backfill(item)) {
+                            updated.incrementAndGet();
+                        }
+                    }), executor));
+            }
+            CompletableFuture.allOf(segments.toArray(new CompletableFuture[0])).join();
+            logger.info("Backfill de tipoShard concluído em {} ms: {} usuários atualizados",
+                (System.nanoTime() - startedAt) / 1_000_000, updated.get());
+        } catch (Exception e) {
+            logger.error("Erro no backfill de tipoShard depois de {} usuários atualizados; rode de novo para continuar",
+                updated.get(), e);
+        } finally {
+            executor.shutdown();
+        }
+        return updated.get();
+    }
+
+    private boolean backfill(Map<String, AttributeValue> item) {
+        String id = value(item, "id");
+        String tipoUsuario = value(item, "tipoUsuario");
+        if (UserKeys.isAuxiliaryId(id) || tipoUsuario == null || item.containsKey("tipoShard")) {
+            return false;
+        }
+        UserEntity user = new UserEntity();
+        user.setId(id);
+        user.setTipoUsuario(UserEntityType.valueOf(tipoUsuario));
+        return userListingRepository.backfillTipoShard(id, user.getTipoShard());
+    }
+
+    private static String value(Map<String, AttributeValue> item, String attribute) {
+        AttributeValue value = item.get(attribute);
+        return value == null ? null : value.getS();
+    }
+}
@@ -0,0 +1,16 @@
+package com.nttdata.user.api.service;
+
+import com.nttdata.user.api.data.dto.UserBatchResultDto;
+import com.nttdata.user.api.data.dto.UserDto;
+
+import java.util.Iterator;
+import java.util.List;
+
+public interface UserBatchService {
+
+    /**
+     * Cadastra os usuários à medida que são lidos, sem materializar a entrada
+     * inteira. Devolve um resultado por item, na ordem de entrada.
+     */
+    List<UserBatchResultDto> registerUsers(Iterator<UserDto> users);
+}
@@ -0,0 +1,250 @@
+package com.nttdata.user.api.service;
+
+import com.nttdata.user.api.data.dto.UserBatchResultDto;
+import com.nttdata.user.api.data.dto.UserBatchStatus;
+import com.nttdata.user.api.data.dto.UserDto;
+import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.data.mapper.UserMapper;
+import com.nttdata.user.api.exception.PasswordHashingRejectedException;
+import com.nttdata.user.api.exception.UserAlreadyExistsException;
+import com.nttdata.user.api.repository.UserBatchRepository;
+import com.nttdata.user.api.repository.UserChunkResult;
+import com.nttdata.user.api.repository.UserKeys;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static com.nttdata.user.api.exception.CPFUtils.isValidCPF;
+
+@Service
+public class UserBatchServiceImpl implements UserBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserBatchServiceImpl.class);
+    private static final int WINDOW_SIZE = 500;
+
+    private final UserService userService;
+    private final UserBatchRepository userBatchRepository;
+    private final UserMapper userMapper;
+    private final PasswordHasher passwordHasher;
+    private final RegisteredUserFilter registeredUserFilter;
+    private final UserMetrics userMetrics;
+    private final ExecutorService lookupExecutor;
+    private final int maxItems;
+
+    public UserBatchServiceImpl(UserService userService,
+                                UserBatchRepository userBatchRepository,
+                                UserMapper userMapper,
+                                PasswordHasher passwordHasher,
+                                RegisteredUserFilter registeredUserFilter,
+                                UserMetrics userMetrics,
+                                @Value("${user.batch.lookup-parallelism:8}") int lookupParallelism,
+                                @Value("${user.batch.max-items:50000}") int maxItems) {
+        this.userService = userService;
+        this.userBatchRepository = userBatchRepository;
+        this.userMapper = userMapper;
+        this.passwordHasher = passwordHasher;
+        this.registeredUserFilter = registeredUserFilter;
+        this.userMetrics = userMetrics;
+        this.lookupExecutor = Executors.newFixedThreadPool(lookupParallelism);
+        this.maxItems = maxItems;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lookupExecutor.shutdown();
+    }
+
+    @Override
+    public List<UserBatchResultDto> registerUsers(Iterator<UserDto> users) {
+        List<UserBatchResultDto> results = new ArrayList<>();
+        Set<String> seenCpfs = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<UserDto> window = new ArrayList<>(WINDOW_SIZE);
+        int index = 0;
+        boolean truncated = false;
+        while (users.hasNext()) {
+            if (index >= maxItems) {
+                // O resto da entrada não é lido: o limite existe para limitar a memória
+                // e o BCrypt de uma chamada, e um resultado por item excedente não limitaria.
+                truncated = true;
+                break;
+            }
+            UserDto user = users.next();
+            window.add(user);
+            index++;
+            if (window.size() == WINDOW_SIZE) {
+                processWindow(window, index - window.size(), seenCpfs, seenEmails, results);
+                window.clear();
+            }
+        }
+        if (!window.isEmpty()) {
+            processWindow(window, index - window.size(), seenCpfs, seenEmails, results);
+        }
+        if (truncated) {
+            results.add(result(index, null, null, UserBatchStatus.FAILED,
+                "Limite de " + maxItems + " usuários por lote excedido; o restante da entrada não foi lido"));
+        }
+        return results;
+    }
+
+    private void processWindow(List<UserDto> window, int offset, Set<String> seenCpfs, Set<String> seenEmails,
+                               List<UserBatchResultDto> results) {
+        int size = window.size();
+        UserBatchResultDto[] windowResults = new UserBatchResultDto[size];
+
+        boolean[] validCpf = new boolean[size];
+        IntStream.range(0, size).parallel().forEach(i -> {
+            String cpf = window.get(i).getCpf();
+            validCpf[i] = cpf != null && isValidCPF(cpf);
+        });
+
+        List<Integer> candidates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            UserDto user = window.get(i);
+            String cpf = UserKeys.cpf(user.getCpf());
+            String email = UserKeys.email(user.getEmail());
+            if (!validCpf[i]) {
+                userMetrics.invalidCpf();
+                windowResults[i] = result(offset + i, user, null, UserBatchStatus.INVALID_CPF, "CPF inválido");
+            } else if (seenCpfs.contains(cpf)) {
+                userMetrics.duplicateCpf();
+                windowResults[i] = result(offset + i, user, null, UserBatchStatus.DUPLICATE, "CPF repetido no lote");
+            } else if (email != null && seenEmails.contains(email)) {
+                userMetrics.duplicateEmail();
+                windowResults[i] = result(offset + i, user, null, UserBatchStatus.DUPLICATE, "E-mail repetido no lote");
+            } else {
+                seenCpfs.add(cpf);
+                if (email != null) {
+                    seenEmails.add(email);
+                }
+                candidates.add(i);
+            }
+        }
+
+        List<CompletableFuture<String>> lookups = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            UserDto user = window.get(i);
+            lookups.add(CompletableFuture.supplyAsync(() -> existingKey(user), lookupExecutor));
+        }
+        List<Integer> newUsers = new ArrayList<>(candidates.size());
+        for (int c = 0; c < candidates.size(); c++) {
+            int i = candidates.get(c);
+            try {
+                String existing = lookups.get(c).join();
+                if (existing == null) {
+                    newUsers.add(i);
+                } else if (UserAlreadyExistsException.CPF.equals(existing)) {
+                    userMetrics.duplicateCpf();
+                    windowResults[i] = result(offset + i, window.get(i), null, UserBatchStatus.DUPLICATE, "CPF já cadastrado");
+                } else {
+                    userMetrics.duplicateEmail();
+                    windowResults[i] = result(offset + i, window.get(i), null, UserBatchStatus.DUPLICATE, "E-mail já cadastrado");
+                }
+            } catch (CompletionException e) {
+                windowResults[i] = result(offset + i, window.get(i), null, UserBatchStatus.FAILED,
+                    "Erro ao verificar CPF e e-mail: " + e.getCause().getMessage());
+            }
+        }
+
+        for (int start = 0; start < newUsers.size(); start += UserBatchRepository.MAX_USERS_PER_CHUNK) {
+            List<Integer> chunk = newUsers.subList(start, Math.min(start + UserBatchRepository.MAX_USERS_PER_CHUNK, newUsers.size()));
+            writeChunk(window, offset, chunk, windowResults);
+        }
+
+        for (UserBatchResultDto windowResult : windowResults) {
+            results.add(windowResult);
+        }
+    }
+
+    private void writeChunk(List<UserDto> window, int offset, List<Integer> chunk, UserBatchResultDto[] windowResults) {
+        List<CompletableFuture<String>> hashes = new ArrayList<>(chunk.size());
+        for (int i : chunk) {
+            try {
+                hashes.add(passwordHasher.encodeAsync(window.get(i).getSenha()));
+            } catch (PasswordHashingRejectedException e) {
+                hashes.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        List<UserEntity> entities = new ArrayList<>(chunk.size());
+        List<Integer> entityIndexes = new ArrayList<>(chunk.size());
+        for (int c = 0; c < chunk.size(); c++) {
+            int i = chunk.get(c);
+            UserDto user = window.get(i);
+            try {
+                String encodedPassword = hashes.get(c).join();
+                UserEntity entity = userMapper.toRegistrationEntity(new UserDto(null, user.getNome(),
+                    user.getCpf(), user.getEmail(), encodedPassword, null));
+                entities.add(entity);
+                entityIndexes.add(i);
+            } catch (CompletionException e) {
+                windowResults[i] = result(offset + i, user, null, UserBatchStatus.FAILED, "Erro ao processar senha: " + e.getCause().getMessage());
+            } catch (IllegalArgumentException e) {
+                windowResults[i] = result(offset + i, user, null, UserBatchStatus.FAILED, e.getMessage());
+            }
+        }
+        if (entities.isEmpty()) {
+            return;
+        }
+
+        UserChunkResult written;
+        try {
+            written = userBatchRepository.saveChunk(entities);
+        } catch (Exception e) {
+            logger.error("Erro ao gravar lote de {} usuários", entities.size(), e);
+            for (int i : entityIndexes) {
+                windowResults[i] = result(offset + i, window.get(i), null, UserBatchStatus.FAILED, "Erro ao gravar usuário");
+            }
+            return;
+        }
+        for (int e = 0; e < entities.size(); e++) {
+            UserEntity entity = entities.get(e);
+            int i = entityIndexes.get(e);
+            String duplicate = written.duplicates().get(entity.getId());
+            if (UserAlreadyExistsException.CPF.equals(duplicate)) {
+                // Outro cadastro reservou o CPF entre a verificação e a gravação.
+                userMetrics.duplicateCpf();
+                windowResults[i] = result(offset + i, window.get(i), null, UserBatchStatus.DUPLICATE, "CPF já cadastrado");
+            } else if (UserAlreadyExistsException.EMAIL.equals(duplicate)) {
+                userMetrics.duplicateEmail();
+                windowResults[i] = result(offset + i, window.get(i), null, UserBatchStatus.DUPLICATE, "E-mail já cadastrado");
+            } else if (written.failed().contains(entity.getId())) {
+                windowResults[i] = result(offset + i, window.get(i), null, UserBatchStatus.FAILED, "Usuário não gravado pelo DynamoDB");
+            } else {
+                registeredUserFilter.put(entity.getCpf(), entity.getEmail());
+                windowResults[i] = result(offset + i, window.get(i), entity.getId(), UserBatchStatus.CREATED, null);
+            }
+        }
+    }
+
+    /**
+     * @return {@link UserAlreadyExistsException#CPF} ou {@link UserAlreadyExistsException#EMAIL}
+     *         se já houver usuário com o CPF ou o e-mail, ou {@code null}
+     */
+    private String existingKey(UserDto user) {
+        if (userService.existsByCpf(user.getCpf())) {
+            return UserAlreadyExistsException.CPF;
+        }
+        if (user.getEmail() != null && userService.existsByEmail(user.getEmail())) {
+            return UserAlreadyExistsException.EMAIL;
+        }
+        return null;
+    }
+
+    private static UserBatchResultDto result(int index, UserDto user, String id, UserBatchStatus status, String message) {
+        return new UserBatchResultDto(index, id, user == null ? null : user.getCpf(), status, message);
+    }
+}
@@ -0,0 +1,109 @@
+package com.nttdata.user.api.service;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Posição de uma exportação: o {@code LastEvaluatedKey} de cada segmento do scan
+ * paralelo, serializado num token opaco para retomar de onde a última linha de
+ * checkpoint parou.
+ * <p>
+ * Formato: {@code base64url(v1|total|s0|s1|...)}, em que cada segmento é vazio
+ * (não iniciado), {@code *} (concluído) ou o id da última chave em base64url.
+ */
+final class UserExportCursor {
+
+    private static final String VERSION = "v1";
+    private static final String DONE = "*";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final String[] lastKeys;
+    private final boolean[] done;
+
+    private UserExportCursor(int totalSegments) {
+        this.lastKeys = new String[totalSegments];
+        this.done = new boolean[totalSegments];
+    }
+
+    static UserExportCursor start(int totalSegments) {
+        return new UserExportCursor(totalSegments);
+    }
+
+    /**
+     * @throws IllegalArgumentException se o token não for um cursor desta versão
+     */
+    static UserExportCursor parse(String token) {
+        try {
+            String[] fields = new String(DECODER.decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            int totalSegments = fields.length < 3 || !VERSION.equals(fields[0]) ? 0 : Integer.parseInt(fields[1]);
+            if (totalSegments < 1 || fields.length != totalSegments + 2) {
+                throw new IllegalArgumentException("formato");
+            }
+            UserExportCursor cursor = new UserExportCursor(totalSegments);
+            for (int segment = 0; segment < totalSegments; segment++) {
+                String field = fields[segment + 2];
+                if (DONE.equals(field)) {
+                    cursor.done[segment] = true;
+                } else if (!field.isEmpty()) {
+                    cursor.lastKeys[segment] = new String(DECODER.decode(field), StandardCharsets.UTF_8);
+                }
+            }
+            return cursor;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de exportação inválido");
+        }
+    }
+
+    int totalSegments() {
+        return lastKeys.length;
+    }
+
+    boolean isDone(int segment) {
+        return done[segment];
+    }
+
+    boolean isComplete() {
+        for (boolean segmentDone : done) {
+            if (!segmentDone) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Chave para o {@code ExclusiveStartKey} do próximo scan do segmento, ou {@code null} no início.
+     */
+    Map<String, AttributeValue> startKey(int segment) {
+        return lastKeys[segment] == null ? null : Map.of("id", new AttributeValue(lastKeys[segment]));
+    }
+
+    /**
+     * Registra uma página já escrita na resposta.
+     */
+    void advance(int segment, Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            done[segment] = true;
+            lastKeys[segment] = null;
+        } else {
+            lastKeys[segment] = lastEvaluatedKey.get("id").getS();
+        }
+    }
+
+    String encode() {
+        StringBuilder token = new StringBuilder(VERSION).append('|').append(lastKeys.length);
+        for (int segment = 0; segment < lastKeys.length; segment++) {
+            token.append('|');
+            if (done[segment]) {
+                token.append(DONE);
+            } else if (lastKeys[segment] != null) {
+                token.append(ENCODER.encodeToString(lastKeys[segment].getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        return ENCODER.encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,315 @@
+package com.nttdata.user.api.service;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.user.api.data.dto.UserExportFormat;
+import com.nttdata.user.api.exception.UserExportRejectedException;
+import com.nttdata.user.api.repository.UserKeys;
+import com.nttdata.user.api.repository.UserScanRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exporta a tabela {@code User} em streaming a partir de um scan paralelo.
+ * <p>
+ * Cada segmento é lido por uma thread que entrega páginas numa fila limitada; a
+ * thread da requisição escreve as páginas na resposta. Se o cliente lê devagar, a
+ * fila enche e os scans param, então a memória fica limitada a
+ * {@code queue-pages} páginas mais uma por segmento. A projeção do scan não inclui
+ * {@code senha}, e os itens de unicidade de CPF/e-mail são ignorados.
+ * <p>
+ * Depois de cada página vem uma linha de checkpoint com o cursor para retomar a
+ * exportação daquele ponto; a última linha traz cursor nulo quando a tabela foi
+ * percorrida inteira.
+ */
+@Service
+public class UserExportService {
+
+    static final List<String> COLUMNS = List.of("id", "nome", "cpf", "email", "tipoUsuario");
+
+    private static final String PROJECTION = "#id, #nome, #cpf, #email, #tipoUsuario";
+    private static final Map<String, String> ATTRIBUTE_NAMES = Map.of(
+        "#id", "id", "#nome", "nome", "#cpf", "cpf", "#email", "email", "#tipoUsuario", "tipoUsuario");
+
+    private final UserScanRepository userScanRepository;
+    private final ObjectMapper objectMapper;
+    private final Semaphore runningExports;
+    private final int maxSegments;
+    private final int pageSize;
+    private final int queuePages;
+
+    public UserExportService(UserScanRepository userScanRepository,
+                             ObjectMapper objectMapper,
+                             @Value("${user.export.max-concurrent:2}") int maxConcurrent,
+                             @Value("${user.export.max-segments:16}") int maxSegments,
+                             @Value("${user.export.page-size:500}") int pageSize,
+                             @Value("${user.export.queue-pages:8}") int queuePages) {
+        this.userScanRepository = userScanRepository;
+        this.objectMapper = objectMapper;
+        this.runningExports = new Semaphore(maxConcurrent);
+        this.maxSegments = maxSegments;
+        this.pageSize = pageSize;
+        this.queuePages = queuePages;
+    }
+
+    /**
+     * @param segments número de segmentos do scan; ignorado quando há cursor
+     * @param cursor   checkpoint de uma exportação anterior, ou {@code null} para começar do zero
+     * @param limit    encerra na primeira página que completar este número de usuários; 0 para sem limite
+     * @throws IllegalArgumentException   com cursor ou segmentos inválidos, antes de escrever qualquer byte
+     * @throws UserExportRejectedException se já houver {@code max-concurrent} exportações em andamento
+     */
+    @Timed("user.service")
+    public void export(UserExportFormat format, int segments, String cursor, long limit, OutputStream out) throws IOException {
+        UserExportCursor position = cursor == null || cursor.isBlank()
+            ? UserExportCursor.start(validSegments(segments))
+            : UserExportCursor.parse(cursor.trim());
+        validSegments(position.totalSegments());
+        if (!runningExports.tryAcquire()) {
+            throw new UserExportRejectedException("Limite de exportações simultâneas atingido");
+        }
+        try {
+            stream(position, limit, format == UserExportFormat.CSV ? new CsvWriter(out) : new NdjsonWriter(out));
+        } finally {
+            runningExports.release();
+        }
+    }
+
+    private int validSegments(int segments) {
+        if (segments < 1 || segments > maxSegments) {
+            throw new IllegalArgumentException("Número de segmentos deve estar entre 1 e " + maxSegments);
+        }
+        return segments;
+    }
+
+    private void stream(UserExportCursor cursor, long limit, ExportWriter writer) throws IOException {
+        BlockingQueue<Page> pages = new ArrayBlockingQueue<>(queuePages);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        int active = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(cursor.totalSegments(), new ExportThreadFactory());
+        try {
+            for (int segment = 0; segment < cursor.totalSegments(); segment++) {
+                if (!cursor.isDone(segment)) {
+                    int currentSegment = segment;
+                    Map<String, AttributeValue> startKey = cursor.startKey(segment);
+                    executor.execute(() -> scanSegment(currentSegment, cursor.totalSegments(), startKey, pages, cancelled));
+                    active++;
+                }
+            }
+
+            writer.begin();
+            long written = 0;
+            while (active > 0) {
+                Page page = take(pages);
+                if (page.error() != null) {
+                    throw new IllegalStateException("Erro ao exportar usuários: " + page.error().getMessage(), page.error());
+                }
+                for (Map<String, AttributeValue> item : page.items()) {
+                    if (!UserKeys.isAuxiliaryId(value(item, "id"))) {
+                        writer.write(item);
+                        written++;
+                    }
+                }
+                cursor.advance(page.segment(), page.lastEvaluatedKey());
+                if (cursor.isDone(page.segment())) {
+                    active--;
+                }
+                if (active == 0 || (limit > 0 && written >= limit)) {
+                    break;
+                }
+                writer.checkpoint(cursor.encode());
+            }
+            writer.checkpoint(cursor.isComplete() ? null : cursor.encode());
+            writer.end();
+        } finally {
+            cancelled.set(true);
+            executor.shutdownNow();
+        }
+    }
+
+    private void scanSegment(int segment, int totalSegments, Map<String, AttributeValue> startKey,
+                             BlockingQueue<Page> pages, AtomicBoolean cancelled) {
+        Map<String, AttributeValue> exclusiveStartKey = startKey;
+        try {
+            try {
+                do {
+                    if (cancelled.get()) {
+                        return;
+                    }
+                    ScanResult result = userScanRepository.scanPage(segment, totalSegments, exclusiveStartKey,
+                        PROJECTION, ATTRIBUTE_NAMES, pageSize, false);
+                    exclusiveStartKey = result.getLastEvaluatedKey();
+                    pages.put(new Page(segment, result.getItems(), exclusiveStartKey, null));
+                } while (exclusiveStartKey != null && !exclusiveStartKey.isEmpty());
+            } catch (RuntimeException e) {
+                pages.put(new Page(segment, List.of(), null, e));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Page take(BlockingQueue<Page> pages) throws InterruptedIOException {
+        try {
+            return pages.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Exportação interrompida");
+        }
+    }
+
+    private static String value(Map<String, AttributeValue> item, String attribute) {
+        AttributeValue value = item.get(attribute);
+        return value == null ? null : value.getS();
+    }
+
+    private record Page(int segment, List<Map<String, AttributeValue>> items,
+                        Map<String, AttributeValue> lastEvaluatedKey, RuntimeException error) {
+    }
+
+    private interface ExportWriter {
+
+        void begin() throws IOException;
+
+        void write(Map<String, AttributeValue> item) throws IOException;
+
+        /**
+         * Escreve o checkpoint e descarrega o buffer, para que o cliente só veja cursores
+         * de páginas que já recebeu.
+         */
+        void checkpoint(String cursor) throws IOException;
+
+        void end() throws IOException;
+    }
+
+    /**
+     * Um usuário por linha; checkpoints são objetos {@code {"cursor": ...}}.
+     */
+    private final class NdjsonWriter implements ExportWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setPrettyPrinter(new MinimalPrettyPrinter(""));
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void write(Map<String, AttributeValue> item) throws IOException {
+            generator.writeStartObject();
+            for (String column : COLUMNS) {
+                String value = value(item, column);
+                if (value != null) {
+                    generator.writeStringField(column, value);
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void checkpoint(String cursor) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("cursor", cursor);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            generator.flush();
+        }
+
+        @Override
+        public void end() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * Cabeçalho com as colunas; checkpoints são linhas de comentário {@code #cursor,<token>}.
+     */
+    private static final class CsvWriter implements ExportWriter {
+
+        private final BufferedWriter writer;
+
+        private CsvWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(Map<String, AttributeValue> item) throws IOException {
+            for (int i = 0; i < COLUMNS.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                String value = value(item, COLUMNS.get(i));
+                if (value != null) {
+                    writer.write(escape(value));
+                }
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void checkpoint(String cursor) throws IOException {
+            writer.write("#cursor,");
+            if (cursor != null) {
+                writer.write(cursor);
+            }
+            writer.write('\n');
+            writer.flush();
+        }
+
+        @Override
+        public void end() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(String value) {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0 || value.startsWith("#");
+            return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+        }
+    }
+
+    private static final class ExportThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "user-export-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.nttdata.user.api.service;
+
+import com.nttdata.user.api.data.dto.UserDtoType;
+import com.nttdata.user.api.data.dto.UserPageDto;
+import com.nttdata.user.api.data.dto.UserPublicDto;
+import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.data.mapper.UserMapper;
+import com.nttdata.user.api.repository.UserCacheNames;
+import com.nttdata.user.api.repository.UserKeys;
+import com.nttdata.user.api.repository.UserListingPage;
+import com.nttdata.user.api.repository.UserListingRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Listagem paginada de usuários por tipo. O cursor é opaco para o cliente:
+ * {@code base64url(tipo|último id)}, e só vale para o tipo em que foi emitido.
+ * O tamanho da página é limitado a {@code max-page-size} independentemente do
+ * que o cliente pedir.
+ */
+@Service
+public class UserListingService {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final UserListingRepository userListingRepository;
+    private final UserMapper userMapper;
+    private final CacheManager cacheManager;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public UserListingService(UserListingRepository userListingRepository,
+                              UserMapper userMapper,
+                              CacheManager cacheManager,
+                              @Value("${user.listing.default-page-size:20}") int defaultPageSize,
+                              @Value("${user.listing.max-page-size:100}") int maxPageSize) {
+        this.userListingRepository = userListingRepository;
+        this.userMapper = userMapper;
+        this.cacheManager = cacheManager;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * @param limit  tamanho da página; 0 ou negativo usa o padrão e acima do máximo é reduzido ao máximo
+     * @param cursor {@code nextCursor} da página anterior, ou {@code null} para a primeira
+     * @throws IllegalArgumentException com cursor inválido ou emitido para outro tipo
+     */
+    @Timed("user.service")
+    public UserPageDto listByTipo(UserDtoType tipoUsuario, int limit, String cursor) {
+        String afterId = cursor == null || cursor.isBlank() ? null : parseCursor(tipoUsuario, cursor.trim());
+        int pageSize = limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+        UserListingPage page = userListingRepository.findByTipo(userMapper.toEntityType(tipoUsuario), afterId, pageSize);
+
+        List<UserPublicDto> items = userMapper.toPublicDtos(page.users());
+        String nextCursor = page.hasMore() && !items.isEmpty()
+            ? encodeCursor(tipoUsuario, items.get(items.size() - 1).getId())
+            : null;
+        return new UserPageDto(items, nextCursor);
+    }
+
+    /**
+     * Muda o tipo de um usuário já cadastrado; é o único caminho para criar um
+     * administrador, já que o cadastro público grava sempre {@code CLIENTE}. As
+     * entradas do usuário nos caches desta instância são invalidadas; nas demais,
+     * o novo tipo vale quando as credenciais expirarem do cache ({@code user.cache.ttl}).
+     *
+     * @return o usuário atualizado, ou vazio se o id não for de um usuário
+     */
+    @Timed("user.service")
+    public Optional<UserPublicDto> changeTipo(String id, UserDtoType tipoUsuario) {
+        Optional<UserEntity> updated = userListingRepository.updateTipo(id, userMapper.toEntityType(tipoUsuario));
+        updated.map(UserEntity::getEmail).ifPresent(email -> {
+            String key = UserKeys.email(email);
+            for (String cacheName : List.of(UserCacheNames.BY_EMAIL, UserCacheNames.CREDENTIALS_BY_EMAIL)) {
+                Cache cache = cacheManager.getCache(cacheName);
+                if (cache != null) {
+                    cache.evict(key);
+                }
+            }
+        });
+        return updated.map(userMapper::toPublicDto);
+    }
+
+    static String encodeCursor(UserDtoType tipoUsuario, String lastId) {
+        return ENCODER.encodeToString((tipoUsuario.name() + '|' + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String parseCursor(UserDtoType tipoUsuario, String cursor) {
+        String decoded;
+        try {
+            decoded = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de listagem inválido");
+        }
+        String prefix = tipoUsuario.name() + '|';
+        if (!decoded.startsWith(prefix) || decoded.length() == prefix.length()) {
+            throw new IllegalArgumentException("Cursor de listagem inválido");
+        }
+        return decoded.substring(prefix.length());
+    }
+}
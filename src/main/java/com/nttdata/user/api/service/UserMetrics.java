@@ -0,0 +1,58 @@
+package com.nttdata.user.api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contadores de negócio do cadastro: resultado dos logins e motivos de
+ * rejeição de registros.
+ */
+@Component
+public class UserMetrics {
+
+    private final Counter loginSuccess;
+    private final Counter loginFailure;
+    private final Counter invalidCpf;
+    private final Counter duplicateCpf;
+    private final Counter duplicateEmail;
+
+    public UserMetrics(MeterRegistry meterRegistry) {
+        this.loginSuccess = Counter.builder("user.login")
+            .description("Tentativas de login por resultado")
+            .tag("outcome", "success")
+            .register(meterRegistry);
+        this.loginFailure = Counter.builder("user.login")
+            .description("Tentativas de login por resultado")
+            .tag("outcome", "failure")
+            .register(meterRegistry);
+        this.invalidCpf = Counter.builder("user.registration.rejected")
+            .description("Registros rejeitados por motivo")
+            .tag("reason", "invalid_cpf")
+            .register(meterRegistry);
+        this.duplicateCpf = Counter.builder("user.registration.rejected")
+            .description("Registros rejeitados por motivo")
+            .tag("reason", "duplicate_cpf")
+            .register(meterRegistry);
+        this.duplicateEmail = Counter.builder("user.registration.rejected")
+            .description("Registros rejeitados por motivo")
+            .tag("reason", "duplicate_email")
+            .register(meterRegistry);
+    }
+
+    public void login(boolean success) {
+        (success ? loginSuccess : loginFailure).increment();
+    }
+
+    public void invalidCpf() {
+        invalidCpf.increment();
+    }
+
+    public void duplicateCpf() {
+        duplicateCpf.increment();
+    }
+
+    public void duplicateEmail() {
+        duplicateEmail.increment();
+    }
+}
@@ -2,15 +2,28 @@ package com.nttdata.user.api.service;
 
 import com.nttdata.user.api.data.dto.UserDto;
 
+import java.util.Optional;
+
 public interface UserService {
 
     UserDto registerUser(UserDto user);
 
+    /**
+     * Valida e aceita o cadastro para gravação em background ({@link RegistrationWriteBehind});
+     * o usuário devolvido já tem id, mas ainda pode não estar no DynamoDB.
+     */
+    UserDto submitRegistration(UserDto user);
+
     boolean existsByCpf(String cpf);
 
     boolean existsByEmail(String email);
 
     boolean findByEmail(UserDto loginRequest);
 
+    /**
+     * Mesma verificação de {@link #findByEmail}, devolvendo o usuário autenticado e se é administrador.
+     */
+    Optional<SessionPrincipal> authenticate(UserDto loginRequest);
+
     UserDto findByEmailAndPassword(String email, String senha);
 }
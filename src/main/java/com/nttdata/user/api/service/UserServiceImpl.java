@@ -3,10 +3,20 @@ package com.nttdata.user.api.service;
 import com.nttdata.user.api.data.entity.UserEntity;
 import com.nttdata.user.api.data.dto.UserDto;
 import com.nttdata.user.api.data.mapper.UserMapper;
+import com.nttdata.user.api.exception.DynamoDBThrottledException;
+import com.nttdata.user.api.exception.PasswordHashingRejectedException;
+import com.nttdata.user.api.exception.RegistrationQueueFullException;
+import com.nttdata.user.api.exception.UserAlreadyExistsException;
 import com.nttdata.user.api.exception.UserRegistrationException;
+import com.nttdata.user.api.repository.UserCredentials;
+import com.nttdata.user.api.repository.UserKeys;
+import com.nttdata.user.api.repository.UserLookupRepository;
+import com.nttdata.user.api.repository.UserRegistrationRepository;
 import com.nttdata.user.api.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -17,81 +27,194 @@ import static com.nttdata.user.api.exception.CPFUtils.isValidCPF;
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserRegistrationRepository userRegistrationRepository;
+
+    @Autowired
+    private UserLookupRepository userLookupRepository;
+
     @Autowired
     private UserMapper userMapper;
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private RegisteredUserFilter registeredUserFilter;
+
+    @Autowired
+    private UserMetrics userMetrics;
+
+    @Autowired
+    private RegistrationWriteBehind registrationWriteBehind;
 
     @Override
+    @Timed("user.service")
     public UserDto registerUser(UserDto user) {
         try {
             if (!isValidCPF(user.getCpf())) {
+                userMetrics.invalidCpf();
+                throw new IllegalArgumentException("CPF inválido");
+            }
+            // A unicidade é garantida pela transação em create; estas verificações só
+            // evitam o BCrypt para duplicados e cobrem usuários gravados antes das
+            // reservas existirem. Com o filtro pronto, um CPF novo não vai ao DynamoDB:
+            // se o filtro desta instância errar, a condição da transação pega.
+            if (!registeredUserFilter.definitelyAbsentCpf(user.getCpf()) && existsByCpf(user.getCpf())) {
+                throw new UserAlreadyExistsException(UserAlreadyExistsException.CPF, "CPF já cadastrado");
+            }
+            if (user.getEmail() != null && !registeredUserFilter.definitelyAbsentEmail(user.getEmail())
+                && existsByEmail(user.getEmail())) {
+                throw new UserAlreadyExistsException(UserAlreadyExistsException.EMAIL, "E-mail já cadastrado");
+            }
+            user.setSenha(passwordHasher.encode(user.getSenha()));
+            UserEntity userEntity = userRegistrationRepository.create(userMapper.toRegistrationEntity(user));
+            registeredUserFilter.put(userEntity.getCpf(), userEntity.getEmail());
+
+            return userMapper.toDto(userEntity);
+        } catch (UserAlreadyExistsException e) {
+            recordDuplicate(e);
+            throw e;
+        } catch (PasswordHashingRejectedException | DynamoDBThrottledException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.warn("Registro de usuário falhou: {}", e.getMessage());
+            throw new UserRegistrationException("Erro ao registrar usuário: " + e.getMessage());
+        }
+    }
+
+    @Override
+    @Timed("user.service")
+    public UserDto submitRegistration(UserDto user) {
+        boolean reserved = false;
+        boolean accepted = false;
+        try {
+            if (!isValidCPF(user.getCpf())) {
+                userMetrics.invalidCpf();
                 throw new IllegalArgumentException("CPF inválido");
             }
+            // Cadastros ainda na fila não aparecem no DynamoDB; a reserva local cobre
+            // essa janela para o mesmo CPF ou e-mail até a gravação.
+            if (!registrationWriteBehind.reserve(user.getCpf(), user.getEmail())) {
+                throw new UserAlreadyExistsException(UserAlreadyExistsException.CPF, "CPF ou e-mail com cadastro em andamento");
+            }
+            reserved = true;
             if (existsByCpf(user.getCpf())) {
-                throw new UserRegistrationException("CPF já cadastrado");
+                throw new UserAlreadyExistsException(UserAlreadyExistsException.CPF, "CPF já cadastrado");
+            }
+            if (user.getEmail() != null && existsByEmail(user.getEmail())) {
+                throw new UserAlreadyExistsException(UserAlreadyExistsException.EMAIL, "E-mail já cadastrado");
             }
-            user.setSenha(passwordEncoder.encode(user.getSenha()));
-            UserEntity userEntity = userRepository.save(userMapper.toEntity(user));
+            user.setSenha(passwordHasher.encode(user.getSenha()));
+            UserEntity userEntity = userMapper.toRegistrationEntity(user);
+            registrationWriteBehind.submit(userEntity);
+            accepted = true;
 
             return userMapper.toDto(userEntity);
+        } catch (UserAlreadyExistsException e) {
+            recordDuplicate(e);
+            throw e;
+        } catch (PasswordHashingRejectedException | RegistrationQueueFullException | DynamoDBThrottledException e) {
+            throw e;
         } catch (Exception e) {
+            logger.warn("Registro de usuário falhou: {}", e.getMessage());
             throw new UserRegistrationException("Erro ao registrar usuário: " + e.getMessage());
+        } finally {
+            if (reserved && !accepted) {
+                registrationWriteBehind.release(user.getCpf(), user.getEmail());
+            }
         }
     }
     @Override
+    @Timed("user.service")
     public boolean existsByCpf(String cpf) {
         try {
-            return userRepository.existsByCpf(cpf);
+            return userLookupRepository.existsByCpf(cpf);
+        } catch (DynamoDBThrottledException e) {
+            throw e;
         } catch (Exception e) {
+            logger.error("Erro ao verificar CPF", e);
             throw new UserRegistrationException("Erro ao verificar CPF: " + e.getMessage());
         }
     }
 
     @Override
+    @Timed("user.service")
     public boolean findByEmail(UserDto loginRequest) {
+        return authenticate(loginRequest).isPresent();
+    }
+
+    @Override
+    @Timed("user.service")
+    public Optional<SessionPrincipal> authenticate(UserDto loginRequest) {
         try {
-            Optional<UserEntity> userEntityOptional = userRepository.findByEmail(loginRequest.getEmail());
-            if (userEntityOptional.isPresent()) {
-                UserEntity userEntity = userEntityOptional.get();
-                if (passwordEncoder.matches(loginRequest.getSenha(), userEntity.getSenha())) {
-                    return true; // Usuário encontrado e senha corresponde
+            Optional<UserCredentials> credentialsOptional = userLookupRepository.findCredentialsByEmail(loginRequest.getEmail());
+            if (credentialsOptional.isPresent()) {
+                UserCredentials credentials = credentialsOptional.get();
+                if (passwordHasher.matches(loginRequest.getSenha(), credentials.senha())) {
+                    userMetrics.login(true);
+                    return Optional.of(new SessionPrincipal(credentials.id(), credentials.isAdmin())); // Usuário encontrado e senha corresponde
                 } else {
-                    return false; // Senha não corresponde
+                    userMetrics.login(false);
+                    return Optional.empty(); // Senha não corresponde
                 }
             } else {
-                return false; // Usuário não encontrado com o e-mail fornecido
+                userMetrics.login(false);
+                return Optional.empty(); // Usuário não encontrado com o e-mail fornecido
             }
+        } catch (PasswordHashingRejectedException | DynamoDBThrottledException e) {
+            throw e;
         } catch (Exception e) {
+            logger.error("Erro ao buscar usuário por e-mail", e);
             throw new UserRegistrationException("Erro ao buscar usuário por e-mail: " + e.getMessage());
         }
     }
     @Override
+    @Timed("user.service")
     public boolean existsByEmail(String email) {
         try {
-            Optional<UserEntity> userEntity = userRepository.findByEmail(email);
-            return userEntity.isPresent();
+            return userLookupRepository.existsByEmail(email);
+        } catch (DynamoDBThrottledException e) {
+            throw e;
         } catch (Exception e) {
+            logger.error("Erro ao verificar e-mail", e);
             throw new UserRegistrationException("Erro ao registrar e-mail: " + e.getMessage());
         }
     }
     @Override
+    @Timed("user.service")
     public UserDto findByEmailAndPassword(String email, String senha) {
         try {
-            Optional<UserEntity> userEntityOptional = userRepository.findByEmail(email);
+            Optional<UserEntity> userEntityOptional = userRepository.findByEmail(UserKeys.email(email));
             if (userEntityOptional.isPresent()) {
                 UserEntity userEntity = userEntityOptional.get();
-                if (passwordEncoder.matches(senha, userEntity.getSenha())) {
+                if (passwordHasher.matches(senha, userEntity.getSenha())) {
+                    userMetrics.login(true);
                     return userMapper.toDto(userEntity);
                 }
             }
+            userMetrics.login(false);
             return null;
+        } catch (PasswordHashingRejectedException | DynamoDBThrottledException e) {
+            throw e;
         } catch (Exception e) {
+            logger.error("Erro ao buscar usuário por e-mail e senha", e);
             throw new UserRegistrationException("Erro ao buscar usuário por e-mail e senha: " + e.getMessage());
         }
     }
+
+    private void recordDuplicate(Throwable error) {
+        if (error instanceof UserAlreadyExistsException duplicate) {
+            if (UserAlreadyExistsException.EMAIL.equals(duplicate.getAttribute())) {
+                userMetrics.duplicateEmail();
+            } else {
+                userMetrics.duplicateCpf();
+            }
+        }
+    }
 }
@@ -0,0 +1,33 @@
+package com.nttdata.user.api.fixture;
+
+/**
+ * Gera CPFs válidos a partir de uma base de 9 dígitos. Usado pelos testes e pelos benchmarks.
+ */
+public final class Cpfs {
+
+    private Cpfs() {
+    }
+
+    public static String valid(long base) {
+        char[] digits = new char[11];
+        long value = Math.floorMod(base, 1_000_000_000L);
+        for (int i = 8; i >= 0; i--) {
+            digits[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        int sum = 0;
+        for (int i = 0; i < 9; i++) {
+            sum += (digits[i] - '0') * (10 - i);
+        }
+        int digit1 = sum % 11 < 2 ? 0 : 11 - sum % 11;
+        sum = 0;
+        for (int i = 0; i < 9; i++) {
+            sum += (digits[i] - '0') * (11 - i);
+        }
+        sum += digit1 * 2;
+        int digit2 = sum % 11 < 2 ? 0 : 11 - sum % 11;
+        digits[9] = (char) ('0' + digit1);
+        digits[10] = (char) ('0' + digit2);
+        return new String(digits);
+    }
+}
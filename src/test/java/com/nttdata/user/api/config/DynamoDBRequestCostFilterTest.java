@@ -0,0 +1,93 @@
+package com.nttdata.user.api.config;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.Response;
+import com.amazonaws.services.dynamodbv2.model.Capacity;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DynamoDBRequestCostFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DynamoDBConsumedCapacityHandler handler;
+    private DynamoDBRequestCostFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        handler = new DynamoDBConsumedCapacityHandler(meterRegistry);
+        filter = new DynamoDBRequestCostFilter(meterRegistry, Duration.ofSeconds(10), 1000);
+    }
+
+    @Test
+    @DisplayName("Chamadas pedem capacidade detalhada por índice")
+    public void testBeforeExecution_RequestsIndexes() {
+        QueryRequest query = (QueryRequest) handler.beforeExecution(new QueryRequest());
+        assertEquals(ReturnConsumedCapacity.INDEXES.toString(), query.getReturnConsumedCapacity());
+    }
+
+    @Test
+    @DisplayName("Capacidade da requisição é agregada por endpoint, operação e índice")
+    public void testFilter_AggregatesCapacityPerEndpoint() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users/login");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/login");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            respond(new QueryRequest(), new QueryResult().withConsumedCapacity(indexCapacity("EmailIndex", 0.5)));
+            respond(new QueryRequest(), new QueryResult().withConsumedCapacity(indexCapacity("EmailIndex", 0.5)));
+            respond(new ScanRequest(), new ScanResult().withConsumedCapacity(new ConsumedCapacity()
+                .withTableName("User").withCapacityUnits(8.0).withTable(new Capacity().withCapacityUnits(8.0))));
+            DynamoDBRequestCost cost = DynamoDBRequestCost.current();
+            assertEquals(3, cost.getCalls());
+            assertEquals(9.0, cost.getCapacityUnits());
+            assertEquals(Map.of("User/EmailIndex", 1.0, "User", 8.0), cost.getCapacityByTarget());
+        });
+
+        DistributionSummary query = meterRegistry.get("http.server.dynamodb.capacity")
+            .tag("uri", "/api/users/login").tag("operation", "Query").summary();
+        assertEquals(1, query.count());
+        assertEquals(1.0, query.totalAmount());
+        assertEquals(9.0, meterRegistry.get("http.server.dynamodb.requests.capacity").summary().totalAmount());
+        assertEquals(1.0, meterRegistry.get("dynamodb.consumed.capacity").tag("index", "EmailIndex").counter().count());
+        assertEquals(8.0, meterRegistry.get("dynamodb.consumed.capacity").tag("operation", "Scan").counter().count());
+        assertNull(DynamoDBRequestCost.current());
+    }
+
+    @Test
+    @DisplayName("Chamadas fora de uma requisição HTTP só alimentam o contador")
+    public void testHandler_WithoutRequestContext() {
+        respond(new QueryRequest(), new QueryResult().withConsumedCapacity(new ConsumedCapacity()
+            .withTableName("User").withCapacityUnits(0.5)));
+        assertEquals(0.5, meterRegistry.get("dynamodb.consumed.capacity").tag("index", "table").counter().count());
+        assertNull(DynamoDBRequestCost.current());
+    }
+
+    private void respond(AmazonWebServiceRequest originalRequest, Object result) {
+        handler.afterResponse(new DefaultRequest<>(originalRequest, "AmazonDynamoDBv2"), new Response<>(result, null));
+    }
+
+    private static ConsumedCapacity indexCapacity(String index, double units) {
+        return new ConsumedCapacity()
+            .withTableName("User")
+            .withCapacityUnits(units)
+            .withGlobalSecondaryIndexes(Map.of(index, new Capacity().withCapacityUnits(units)));
+    }
+}
@@ -0,0 +1,158 @@
+package com.nttdata.user.api.config;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.handlers.HandlerAfterAttemptContext;
+import com.amazonaws.services.dynamodbv2.model.Capacity;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputExceededException;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.nttdata.user.api.exception.DynamoDBThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DynamoDBThrottleHandlerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DynamoDBThrottleProperties properties;
+    private DynamoDBThrottleHandler handler;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new DynamoDBThrottleProperties();
+        properties.setMaxWait(Duration.ZERO);
+        handler = new DynamoDBThrottleHandler(properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Sem capacidade e sem espera permitida, a chamada é recusada e contada como client")
+    public void testShedsWhenBucketIsEmpty() {
+        properties.getWrite().put("User", 2.0);
+
+        handler.beforeRequest(request(new PutItemRequest().withTableName("User")));
+        handler.beforeRequest(request(new PutItemRequest().withTableName("User")));
+        assertThrows(DynamoDBThrottledException.class,
+            () -> handler.beforeRequest(request(new PutItemRequest().withTableName("User"))));
+
+        assertEquals(1, events("table", "write", "client"));
+    }
+
+    @Test
+    @DisplayName("ProvisionedThroughputExceeded reduz a taxa do índice pela metade; uma rajada de sucessos não a devolve")
+    public void testThrottlingHalvesRate() {
+        properties.getRead().put("User/EmailIndex", 10.0);
+        Request<?> request = request(new QueryRequest().withTableName("User").withIndexName("EmailIndex"));
+        handler.beforeRequest(request);
+
+        ProvisionedThroughputExceededException throttled = new ProvisionedThroughputExceededException("Throughput exceeded");
+        throttled.setErrorCode("ProvisionedThroughputExceededException");
+        handler.afterAttempt(HandlerAfterAttemptContext.builder().withRequest(request).withException(throttled).build());
+
+        assertEquals(5, rate("EmailIndex", "read"));
+        assertEquals(1, events("EmailIndex", "read", "server"));
+
+        for (int i = 0; i < 100; i++) {
+            handler.afterResponse(request, new Response<>(new QueryResult(), null));
+        }
+        // O aumento aditivo é por segundo, não por chamada: no máximo um passo aqui.
+        assertTrue(rate("EmailIndex", "read") <= 5.5);
+    }
+
+    @Test
+    @DisplayName("Capacidade consumida acima da reserva vira débito que atrasa as próximas leituras")
+    public void testConsumedCapacityIsCharged() {
+        properties.getRead().put("User", 10.0);
+        properties.setMaxWait(Duration.ofMillis(100));
+        Request<?> scan = request(new ScanRequest().withTableName("User"));
+        handler.beforeRequest(scan);
+        handler.afterResponse(scan, new Response<>(new ScanResult().withConsumedCapacity(
+            new ConsumedCapacity().withTableName("User").withCapacityUnits(30.0)), null));
+
+        assertThrows(DynamoDBThrottledException.class,
+            () -> handler.beforeRequest(request(new GetItemRequest().withTableName("User"))));
+    }
+
+    @Test
+    @DisplayName("Escrita espera o débito de escrita dos índices da tabela")
+    public void testWriteWaitsForIndexDebt() {
+        properties.getWrite().put("User", 100.0);
+        properties.getWrite().put("User/EmailIndex", 1.0);
+        Request<?> put = request(new PutItemRequest().withTableName("User"));
+        handler.beforeRequest(put);
+        handler.afterResponse(put, new Response<>(new PutItemResult().withConsumedCapacity(new ConsumedCapacity()
+            .withTableName("User")
+            .withCapacityUnits(3.0)
+            .withTable(new Capacity().withCapacityUnits(1.0))
+            .withGlobalSecondaryIndexes(Map.of("EmailIndex", new Capacity().withCapacityUnits(2.0)))), null));
+
+        DynamoDBThrottledException e = assertThrows(DynamoDBThrottledException.class,
+            () -> handler.beforeRequest(request(new PutItemRequest().withTableName("User"))));
+        assertTrue(e.getMessage().contains("User/EmailIndex"));
+    }
+
+    @Test
+    @DisplayName("Escrita descartada pelo índice não consome permissões da tabela")
+    public void testIndexShedDoesNotConsumeTablePermits() {
+        properties.getWrite().put("User", 2.0);
+        properties.getWrite().put("User/EmailIndex", 1.0);
+        Request<?> put = request(new PutItemRequest().withTableName("User"));
+        handler.beforeRequest(put);
+        handler.afterResponse(put, new Response<>(new PutItemResult().withConsumedCapacity(new ConsumedCapacity()
+            .withTableName("User")
+            .withCapacityUnits(6.0)
+            .withTable(new Capacity().withCapacityUnits(1.0))
+            .withGlobalSecondaryIndexes(Map.of("EmailIndex", new Capacity().withCapacityUnits(5.0)))), null));
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(DynamoDBThrottledException.class,
+                () -> handler.beforeRequest(request(new PutItemRequest().withTableName("User"))));
+        }
+        assertEquals(5.0, events("EmailIndex", "write", "client"));
+
+        properties.getWrite().remove("User/EmailIndex");
+        handler.beforeRequest(request(new PutItemRequest().withTableName("User")));
+    }
+
+    @Test
+    @DisplayName("Alvo sem teto configurado e limitador desligado não limitam")
+    public void testUnconfiguredTargetIsNotLimited() {
+        properties.getWrite().put("User", 1.0);
+        for (int i = 0; i < 10; i++) {
+            handler.beforeRequest(request(new GetItemRequest().withTableName("User")));
+        }
+        properties.setEnabled(false);
+        for (int i = 0; i < 10; i++) {
+            handler.beforeRequest(request(new PutItemRequest().withTableName("User")));
+        }
+    }
+
+    private static Request<?> request(AmazonWebServiceRequest originalRequest) {
+        return new DefaultRequest<>(originalRequest, "AmazonDynamoDBv2");
+    }
+
+    private double rate(String index, String kind) {
+        return meterRegistry.get("dynamodb.throttle.rate").tag("index", index).tag("kind", kind).gauge().value();
+    }
+
+    private double events(String index, String kind, String source) {
+        return meterRegistry.get("dynamodb.throttle.events")
+            .tag("index", index).tag("kind", kind).tag("source", source)
+            .counter().count();
+    }
+}
@@ -0,0 +1,66 @@
+package com.nttdata.user.api.controller;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.nttdata.user.api.loadtest.InMemoryAmazonDynamoDB;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Limite de login por IP atrás de um proxy confiável: o teste conecta de
+ * 127.0.0.1, que está em {@code server.tomcat.remoteip.internal-proxies}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.main.allow-bean-definition-overriding=true",
+        "user.login.rate-limit.account.capacity=100",
+        "user.login.rate-limit.ip.capacity=2" })
+@Import(LoginClientAddressTest.InMemoryDynamoDBConfig.class)
+public class LoginClientAddressTest {
+
+    @TestConfiguration
+    static class InMemoryDynamoDBConfig {
+
+        @Bean
+        public AmazonDynamoDB amazonDynamoDB() {
+            return new InMemoryAmazonDynamoDB();
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    @DisplayName("O limite por IP usa o cliente do X-Forwarded-For, não o endereço do proxy")
+    public void testLogin_RateLimitedPerForwardedClient() throws Exception {
+        assertEquals(200, login("203.0.113.10", 1));
+        assertEquals(200, login("203.0.113.10", 2));
+        assertEquals(429, login("203.0.113.10", 3));
+
+        assertEquals(200, login("203.0.113.20", 4));
+        assertEquals(200, login("198.51.100.7, 203.0.113.30", 5));
+    }
+
+    private int login(String forwardedFor, int attempt) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/login"))
+            .header("Content-Type", "application/json")
+            .header("X-Forwarded-For", forwardedFor)
+            .POST(HttpRequest.BodyPublishers.ofString(
+                "{\"email\":\"login" + attempt + "@example.com\",\"senha\":\"senha-errada\"}"))
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode();
+    }
+}
@@ -0,0 +1,70 @@
+package com.nttdata.user.api.controller;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.nttdata.user.api.loadtest.InMemoryAmazonDynamoDB;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * O tipo enviado no cadastro público é ignorado: quem se cadastra pedindo
+ * {@code ADMIN} entra como cliente e não passa pelos controles de administrador.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.main.allow-bean-definition-overriding=true")
+@Import(SelfRegisteredAdminTest.InMemoryDynamoDBConfig.class)
+public class SelfRegisteredAdminTest {
+
+    @TestConfiguration
+    static class InMemoryDynamoDBConfig {
+
+        @Bean
+        public AmazonDynamoDB amazonDynamoDB() {
+            return new InMemoryAmazonDynamoDB();
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    @DisplayName("Cadastro pedindo ADMIN entra como CLIENTE e recebe 403 na exportação")
+    public void testSelfRegisteredAdmin_ForbiddenOnExport() throws Exception {
+        HttpResponse<String> registered = post("/api/users/register",
+            "{\"nome\":\"Intruso\",\"cpf\":\"52998224725\",\"email\":\"intruso@example.com\","
+                + "\"senha\":\"senha-forte\",\"tipoUsuario\":\"ADMIN\"}");
+        assertEquals(201, registered.statusCode());
+        assertTrue(registered.body().contains("CLIENTE"));
+
+        HttpResponse<String> login = post("/api/users/login", "{\"email\":\"intruso@example.com\",\"senha\":\"senha-forte\"}");
+        assertEquals("true", login.body());
+        String accessToken = login.headers().firstValue(UserController.AUTH_TOKEN_HEADER).orElseThrow();
+
+        HttpRequest export = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/export"))
+            .header(UserController.AUTH_TOKEN_HEADER, accessToken)
+            .GET()
+            .build();
+        assertEquals(403, client.send(export, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,78 @@
+package com.nttdata.user.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.user.api.data.dto.UserBatchResultDto;
+import com.nttdata.user.api.data.dto.UserBatchStatus;
+import com.nttdata.user.api.loadtest.InMemoryAmazonDynamoDB;
+import com.nttdata.user.api.repository.SessionRevocationRepository;
+import com.nttdata.user.api.service.SessionPrincipal;
+import com.nttdata.user.api.service.SessionTokenService;
+import com.nttdata.user.api.service.UserBatchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UserBatchControllerTest {
+
+    @Mock
+    private UserBatchService userBatchServiceMock;
+
+    private SessionTokenService sessionTokenService;
+    private UserBatchController userBatchController;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        sessionTokenService = new SessionTokenService(new SessionRevocationRepository(new InMemoryAmazonDynamoDB()),
+            Base64.getEncoder().encodeToString(new byte[32]), Duration.ofMinutes(15), Duration.ofDays(7), 1000);
+        userBatchController = new UserBatchController(userBatchServiceMock, new ObjectMapper(), sessionTokenService);
+    }
+
+    @Test
+    @DisplayName("Sem token ou com token de usuário comum o lote não é lido")
+    public void testRegisterUsers_RequiresAdmin() {
+        String accessToken = sessionTokenService.issue(new SessionPrincipal("user-1", false)).accessToken();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, userBatchController.registerUsers(null, batch()).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, userBatchController.registerUsers(accessToken, batch()).getStatusCode());
+        verify(userBatchServiceMock, never()).registerUsers(any());
+    }
+
+    @Test
+    @DisplayName("Token de administrador cadastra o lote")
+    public void testRegisterUsers_AllowedForAdmin() {
+        String accessToken = sessionTokenService.issue(new SessionPrincipal("admin-1", true)).accessToken();
+        List<UserBatchResultDto> results = new ArrayList<>(List.of(
+            new UserBatchResultDto(0, "id-1", "52998224725", UserBatchStatus.CREATED, null)));
+        when(userBatchServiceMock.registerUsers(any())).thenReturn(results);
+
+        ResponseEntity<?> response = userBatchController.registerUsers(accessToken, batch());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(results, response.getBody());
+    }
+
+    private static MockHttpServletRequest batch() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users/batch");
+        request.setContentType("application/x-ndjson");
+        request.setContent("{\"nome\":\"Ana\",\"cpf\":\"52998224725\",\"senha\":\"s\"}\n".getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -1,6 +1,20 @@
 package com.nttdata.user.api.controller;
 
 import com.nttdata.user.api.data.dto.UserDto;
+import com.nttdata.user.api.data.dto.UserDtoType;
+import com.nttdata.user.api.data.dto.UserPublicDto;
+import com.nttdata.user.api.data.dto.UserRegistrationStatus;
+import com.nttdata.user.api.data.dto.UserRegistrationStatusDto;
+import com.nttdata.user.api.data.mapper.UserMapper;
+import com.nttdata.user.api.exception.DynamoDBThrottledException;
+import com.nttdata.user.api.exception.PasswordHashingRejectedException;
+import com.nttdata.user.api.exception.RegistrationQueueFullException;
+import com.nttdata.user.api.exception.UserAlreadyExistsException;
+import com.nttdata.user.api.service.LoginRateLimiter;
+import com.nttdata.user.api.service.RegistrationWriteBehind;
+import com.nttdata.user.api.service.SessionPrincipal;
+import com.nttdata.user.api.service.SessionTokenService;
+import com.nttdata.user.api.service.SessionTokens;
 import com.nttdata.user.api.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,16 +24,24 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -33,24 +55,39 @@ public class UserControllerTest {
     @Mock
     private UserService userServiceMock;
 
+    @Mock
+    private LoginRateLimiter loginRateLimiterMock;
+
+    @Mock
+    private SessionTokenService sessionTokenServiceMock;
+
+    @Mock
+    private RegistrationWriteBehind registrationWriteBehindMock;
+
     private UserController userController;
 
+    private final MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        userController = new UserController(userServiceMock);
+        userController = new UserController(userServiceMock, loginRateLimiterMock, sessionTokenServiceMock, registrationWriteBehindMock,
+            new UserMapper());
     }
 
     @Test
     @DisplayName("Registrar Usuário com Sucesso")
     public void testRegisterUser_Success() {
         UserDto user = new UserDto();
+        UserDto registered = new UserDto("1", "John", "59632418042", "john@example.com", "$2a$10$hash", UserDtoType.CLIENTE);
         when(userServiceMock.existsByCpf(anyString())).thenReturn(false);
         when(userServiceMock.existsByEmail(anyString())).thenReturn(false);
-        when(userServiceMock.registerUser(any(UserDto.class))).thenReturn(user);
+        when(userServiceMock.registerUser(any(UserDto.class))).thenReturn(registered);
         ResponseEntity<?> response = userController.registerUser(user);
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
-        assertNotNull(response.getBody());
+        UserPublicDto body = assertInstanceOf(UserPublicDto.class, response.getBody());
+        assertEquals("1", body.getId());
+        assertEquals("john@example.com", body.getEmail());
     }
 
 //    @Test
@@ -75,6 +112,52 @@ public class UserControllerTest {
 //        assertEquals("E-mail já está em uso", response.getBody());
 //    }
 
+    @Test
+    @DisplayName("Registrar Usuário em modo write-behind responde 202 com a URL de status")
+    public void testRegisterUser_WriteBehindAccepted() {
+        UserDto user = new UserDto();
+        UserDto accepted = new UserDto();
+        accepted.setId("id-1");
+        when(registrationWriteBehindMock.isEnabled()).thenReturn(true);
+        when(userServiceMock.submitRegistration(user)).thenReturn(accepted);
+        ResponseEntity<?> response = userController.registerUser(user);
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/api/users/registrations/id-1", response.getHeaders().getLocation().toString());
+        assertEquals(UserRegistrationStatus.PENDING, ((UserRegistrationStatusDto) response.getBody()).getStatus());
+        verify(userServiceMock, never()).registerUser(any(UserDto.class));
+    }
+
+    @Test
+    @DisplayName("Registrar Usuário com a fila write-behind cheia responde 503")
+    public void testRegisterUser_WriteBehindQueueFull() {
+        UserDto user = new UserDto();
+        when(registrationWriteBehindMock.isEnabled()).thenReturn(true);
+        when(userServiceMock.submitRegistration(user)).thenThrow(new RegistrationQueueFullException("Fila de cadastros cheia"));
+        ResponseEntity<?> response = userController.registerUser(user);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    @DisplayName("Registrar Usuário com a capacidade do DynamoDB esgotada responde 503")
+    public void testRegisterUser_DynamoDBThrottled() {
+        UserDto user = new UserDto();
+        when(userServiceMock.registerUser(any(UserDto.class))).thenThrow(new DynamoDBThrottledException("Capacidade do DynamoDB esgotada para User"));
+        ResponseEntity<?> response = userController.registerUser(user);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    @DisplayName("Registrar Usuário com CPF ou E-mail já Cadastrado")
+    public void testRegisterUser_Conflict() {
+        UserDto user = new UserDto();
+        when(userServiceMock.registerUser(user)).thenThrow(new UserAlreadyExistsException(UserAlreadyExistsException.EMAIL, "E-mail já cadastrado"));
+        ResponseEntity<?> response = userController.registerUser(user);
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("E-mail já cadastrado", response.getBody());
+    }
+
     @Test
     @DisplayName("Registrar Usuário - Erro Interno no Servidor")
     public void testRegisterUser_InternalServerError() {
@@ -92,10 +175,15 @@ public class UserControllerTest {
     public void testLoginUser_Success() {
         UserDto loginRequest = new UserDto();
         loginRequest.setEmail("test@example.com");
-        when(userServiceMock.findByEmail(any(UserDto.class))).thenReturn(true);
-        ResponseEntity<Boolean> response = userController.loginUser(loginRequest);
+        Instant expiresAt = Instant.parse("2030-01-01T00:00:00Z");
+        SessionPrincipal principal = new SessionPrincipal("1", false);
+        when(userServiceMock.authenticate(any(UserDto.class))).thenReturn(Optional.of(principal));
+        when(sessionTokenServiceMock.issue(principal)).thenReturn(new SessionTokens("access", expiresAt, "refresh", expiresAt));
+        ResponseEntity<Boolean> response = userController.loginUser(loginRequest, httpRequest);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertTrue(response.getBody());
+        assertEquals("access", response.getHeaders().getFirst(UserController.AUTH_TOKEN_HEADER));
+        assertEquals("refresh", response.getHeaders().getFirst(UserController.REFRESH_TOKEN_HEADER));
     }
 
     @Test
@@ -103,10 +191,11 @@ public class UserControllerTest {
     public void testLoginUser_Failure() {
         UserDto loginRequest = new UserDto();
         loginRequest.setEmail("test@example.com");
-        when(userServiceMock.findByEmail(any(UserDto.class))).thenReturn(false);
-        ResponseEntity<Boolean> response = userController.loginUser(loginRequest);
+        when(userServiceMock.authenticate(any(UserDto.class))).thenReturn(Optional.empty());
+        ResponseEntity<Boolean> response = userController.loginUser(loginRequest, httpRequest);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertFalse(response.getBody());
+        assertNull(response.getHeaders().getFirst(UserController.AUTH_TOKEN_HEADER));
     }
 
     @Test
@@ -114,10 +203,54 @@ public class UserControllerTest {
     public void testLoginUser_Exception() {
         UserDto loginRequest = new UserDto();
         loginRequest.setEmail("test@example.com");
-        when(userServiceMock.findByEmail(any(UserDto.class))).thenThrow(new RuntimeException("Erro ao processar o login"));
-        ResponseEntity<Boolean> response = userController.loginUser(loginRequest);
+        when(userServiceMock.authenticate(any(UserDto.class))).thenThrow(new RuntimeException("Erro ao processar o login"));
+        ResponseEntity<Boolean> response = userController.loginUser(loginRequest, httpRequest);
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertFalse(response.getBody());
     }
 
+    @Test
+    @DisplayName("Login de Usuário - Pool de Hashing Saturado")
+    public void testLoginUser_HashingRejected() {
+        UserDto loginRequest = new UserDto();
+        loginRequest.setEmail("test@example.com");
+        when(userServiceMock.authenticate(any(UserDto.class))).thenThrow(new PasswordHashingRejectedException("Fila de hashing de senha cheia"));
+        ResponseEntity<Boolean> response = userController.loginUser(loginRequest, httpRequest);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    @DisplayName("Login de Usuário - Limite de Tentativas Excedido")
+    public void testLoginUser_RateLimited() {
+        UserDto loginRequest = new UserDto();
+        loginRequest.setEmail("test@example.com");
+        httpRequest.setRemoteAddr("203.0.113.7");
+        when(loginRateLimiterMock.tryAcquire("test@example.com", "203.0.113.7")).thenReturn(Optional.of(Duration.ofMillis(11_200)));
+        ResponseEntity<Boolean> response = userController.loginUser(loginRequest, httpRequest);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("12", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertFalse(response.getBody());
+        verify(userServiceMock, never()).authenticate(any());
+    }
+
+    @Test
+    @DisplayName("Renovação de Token Inválido")
+    public void testRefreshToken_Invalid() {
+        when(sessionTokenServiceMock.refresh("expired")).thenReturn(Optional.empty());
+        ResponseEntity<Boolean> response = userController.refreshToken("expired", httpRequest);
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Renovação de token acima do limite por IP responde 429")
+    public void testRefreshToken_RateLimited() {
+        httpRequest.setRemoteAddr("203.0.113.7");
+        when(loginRateLimiterMock.tryAcquire(null, "203.0.113.7")).thenReturn(Optional.of(Duration.ofSeconds(3)));
+        ResponseEntity<Boolean> response = userController.refreshToken("refresh", httpRequest);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        verify(sessionTokenServiceMock, never()).refresh(any());
+    }
+
 }
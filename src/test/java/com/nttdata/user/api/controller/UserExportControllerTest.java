@@ -0,0 +1,77 @@
+package com.nttdata.user.api.controller;
+
+import com.nttdata.user.api.data.dto.UserExportFormat;
+import com.nttdata.user.api.loadtest.InMemoryAmazonDynamoDB;
+import com.nttdata.user.api.repository.SessionRevocationRepository;
+import com.nttdata.user.api.service.SessionPrincipal;
+import com.nttdata.user.api.service.SessionTokenService;
+import com.nttdata.user.api.service.UserExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class UserExportControllerTest {
+
+    @Mock
+    private UserExportService userExportServiceMock;
+
+    private SessionTokenService sessionTokenService;
+    private UserExportController userExportController;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        sessionTokenService = new SessionTokenService(new SessionRevocationRepository(new InMemoryAmazonDynamoDB()),
+            Base64.getEncoder().encodeToString(new byte[32]), Duration.ofMinutes(15), Duration.ofDays(7), 1000);
+        userExportController = new UserExportController(userExportServiceMock, sessionTokenService);
+    }
+
+    @Test
+    @DisplayName("Token de usuário comum recebe 403 e não exporta nada")
+    public void testExport_ForbiddenForRegularUser() throws Exception {
+        String accessToken = sessionTokenService.issue(new SessionPrincipal("user-1", false)).accessToken();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        userExportController.exportUsers(accessToken, "ndjson", 4, null, 0, response);
+
+        assertEquals(HttpStatus.FORBIDDEN.value(), response.getStatus());
+        verify(userExportServiceMock, never()).export(any(), anyInt(), any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Sem token válido a exportação responde 401")
+    public void testExport_UnauthorizedWithoutToken() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        userExportController.exportUsers(null, "ndjson", 4, null, 0, response);
+
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), response.getStatus());
+    }
+
+    @Test
+    @DisplayName("Token de administrador exporta")
+    public void testExport_AllowedForAdmin() throws Exception {
+        String accessToken = sessionTokenService.issue(new SessionPrincipal("admin-1", true)).accessToken();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        userExportController.exportUsers(accessToken, "csv", 4, null, 0, response);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        verify(userExportServiceMock).export(eq(UserExportFormat.CSV), eq(4), eq(null), eq(0L), any());
+    }
+}
@@ -0,0 +1,79 @@
+package com.nttdata.user.api.controller;
+
+import com.nttdata.user.api.data.dto.UserDtoType;
+import com.nttdata.user.api.data.dto.UserPageDto;
+import com.nttdata.user.api.loadtest.InMemoryAmazonDynamoDB;
+import com.nttdata.user.api.repository.SessionRevocationRepository;
+import com.nttdata.user.api.service.SessionPrincipal;
+import com.nttdata.user.api.service.SessionTokenService;
+import com.nttdata.user.api.service.UserListingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UserListingControllerTest {
+
+    @Mock
+    private UserListingService userListingServiceMock;
+
+    private SessionTokenService sessionTokenService;
+    private UserListingController userListingController;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        sessionTokenService = new SessionTokenService(new SessionRevocationRepository(new InMemoryAmazonDynamoDB()),
+            Base64.getEncoder().encodeToString(new byte[32]), Duration.ofMinutes(15), Duration.ofDays(7), 1000);
+        userListingController = new UserListingController(userListingServiceMock, sessionTokenService);
+    }
+
+    @Test
+    @DisplayName("Token de usuário comum recebe 403 na listagem")
+    public void testListUsers_ForbiddenForRegularUser() {
+        String accessToken = sessionTokenService.issue(new SessionPrincipal("user-1", false)).accessToken();
+
+        ResponseEntity<?> response = userListingController.listUsers(accessToken, "cliente", 0, null);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verify(userListingServiceMock, never()).listByTipo(any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Token de administrador lista")
+    public void testListUsers_AllowedForAdmin() {
+        String accessToken = sessionTokenService.issue(new SessionPrincipal("admin-1", true)).accessToken();
+        UserPageDto page = new UserPageDto(List.of(), null);
+        when(userListingServiceMock.listByTipo(UserDtoType.CLIENTE, 0, null)).thenReturn(page);
+
+        ResponseEntity<?> response = userListingController.listUsers(accessToken, "cliente", 0, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(page, response.getBody());
+    }
+
+    @Test
+    @DisplayName("Token de usuário comum recebe 403 ao tentar se promover a administrador")
+    public void testChangeTipo_ForbiddenForRegularUser() {
+        String accessToken = sessionTokenService.issue(new SessionPrincipal("user-1", false)).accessToken();
+
+        ResponseEntity<?> response = userListingController.changeTipo(accessToken, "user-1", "admin");
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verify(userListingServiceMock, never()).changeTipo(any(), any());
+    }
+}
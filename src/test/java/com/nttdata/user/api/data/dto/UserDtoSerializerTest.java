@@ -0,0 +1,36 @@
+package com.nttdata.user.api.data.dto;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserDtoSerializerTest {
+
+    private final UserDto userDto = new UserDto("id-1", "Fernanda", "52998224725",
+        "fernanda@example.com", null, UserDtoType.FORNECEDOR);
+
+    @Test
+    @DisplayName("JSON do serializador pré-codificado é igual ao do serializador por reflexão")
+    public void testJsonMatchesReflection() throws IOException {
+        ObjectMapper reflection = JsonMapper.builder().disable(MapperFeature.USE_ANNOTATIONS).build();
+
+        assertEquals(reflection.writeValueAsString(userDto), new ObjectMapper().writeValueAsString(userDto));
+    }
+
+    @Test
+    @DisplayName("CBOR faz ida e volta do UserDto e é menor que o JSON")
+    public void testCborRoundTrip() throws IOException {
+        CBORMapper cborMapper = new CBORMapper();
+        byte[] cbor = cborMapper.writeValueAsBytes(userDto);
+
+        assertEquals(userDto, cborMapper.readValue(cbor, UserDto.class));
+        assertTrue(cbor.length < new ObjectMapper().writeValueAsBytes(userDto).length);
+    }
+}
@@ -2,13 +2,18 @@ package com.nttdata.user.api.data.mapper;
 
 import com.nttdata.user.api.data.dto.UserDto;
 import com.nttdata.user.api.data.dto.UserDtoType;
+import com.nttdata.user.api.data.dto.UserPublicDto;
 import com.nttdata.user.api.data.entity.UserEntity;
 import com.nttdata.user.api.data.entity.UserEntityType;
+import com.nttdata.user.api.repository.UserKeys;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class UserMapperTest {
@@ -33,6 +38,15 @@ public class UserMapperTest {
         Assertions.assertEquals(UserDtoType.CLIENTE, userDto.getTipoUsuario());
     }
 
+    @Test
+    @DisplayName("CPF e e-mail vão para a entidade na forma normalizada")
+    public void testToEntityNormalizesKeys() {
+        UserDto userDto = new UserDto(null, "Fernanda J", "596.324.180-42", " Fefe@Example.com", "senha123", UserDtoType.CLIENTE);
+        UserEntity userEntity = userMapper.toEntity(userDto);
+        assertEquals("59632418042", userEntity.getCpf());
+        assertEquals("fefe@example.com", userEntity.getEmail());
+    }
+
     @Test
     @DisplayName("Testar conversão de tipo de entidade para tipo de DTO")
     public void testToDtoType() {
@@ -91,4 +105,65 @@ public class UserMapperTest {
     public void testToEntityType_WithUnknownDtoType() {
         assertThrows(IllegalArgumentException.class, () -> userMapper.toEntityType(null));
     }
+
+    @Test
+    @DisplayName("Todo tipo de entidade tem par de mesmo nome no DTO, nos dois sentidos")
+    public void testTypeTables_MatchByName() {
+        for (UserEntityType entityType : UserEntityType.values()) {
+            assertEquals(entityType.name(), userMapper.toDtoType(entityType).name());
+            assertEquals(entityType, userMapper.toEntityType(userMapper.toDtoType(entityType)));
+        }
+    }
+
+    @Test
+    @DisplayName("Conversão em lote para DTO público mantém a ordem e não tem senha")
+    public void testToPublicDtos() {
+        List<UserPublicDto> userDtos = userMapper.toPublicDtos(List.of(
+            new UserEntity("1", "Fernanda", "123456789", "fernanda@example.com", "senha", UserEntityType.CLIENTE),
+            new UserEntity("2", "Joana", "987654321", "joana@example.com", "senha", UserEntityType.ADMIN)));
+
+        assertEquals(2, userDtos.size());
+        assertEquals("1", userDtos.get(0).getId());
+        assertEquals(UserDtoType.CLIENTE, userDtos.get(0).getTipoUsuario());
+        assertEquals("joana@example.com", userDtos.get(1).getEmail());
+        assertEquals(UserDtoType.ADMIN, userDtos.get(1).getTipoUsuario());
+    }
+
+    @Test
+    @DisplayName("DTO de usuário cadastrado vira DTO público sem senha")
+    public void testToPublicDto() {
+        UserPublicDto userDto = userMapper.toPublicDto(
+            new UserDto("1", "Fernanda", "123456789", "fernanda@example.com", "$2a$10$hash", UserDtoType.CLIENTE));
+
+        assertEquals(new UserPublicDto("1", "Fernanda", "123456789", "fernanda@example.com", UserDtoType.CLIENTE), userDto);
+        assertNull(userMapper.toPublicDto((UserDto) null));
+    }
+
+    @Test
+    @DisplayName("Cadastro público grava sempre CLIENTE, mesmo pedindo ADMIN")
+    public void testToRegistrationEntity_IgnoresRequestedType() {
+        UserDto userDto = new UserDto(null, "Fernanda", "123.456.789-09", "Fernanda@Example.com", "hash", UserDtoType.ADMIN);
+
+        UserEntity userEntity = userMapper.toRegistrationEntity(userDto);
+
+        assertEquals(UserEntityType.CLIENTE, userEntity.getTipoUsuario());
+        assertEquals("12345678909", userEntity.getCpf());
+        assertEquals("fernanda@example.com", userEntity.getEmail());
+        userDto.setTipoUsuario(null);
+        assertEquals(UserEntityType.CLIENTE, userMapper.toRegistrationEntity(userDto).getTipoUsuario());
+    }
+
+    @Test
+    @DisplayName("Cadastro público ignora o id enviado, mesmo com forma de reserva de CPF")
+    public void testToRegistrationEntity_IgnoresRequestedId() {
+        UserDto userDto = new UserDto(UserKeys.cpfGuardId("52998224725"), "Fernanda", "123.456.789-09",
+            "fernanda@example.com", "hash", UserDtoType.CLIENTE);
+
+        String id = userMapper.toRegistrationEntity(userDto).getId();
+
+        assertNotEquals(userDto.getId(), id);
+        assertFalse(UserKeys.isAuxiliaryId(id));
+        assertEquals(id, UUID.fromString(id).toString());
+        assertNotEquals(id, userMapper.toRegistrationEntity(userDto).getId());
+    }
 }
@@ -0,0 +1,45 @@
+package com.nttdata.user.api.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CPFUtilsTest {
+
+    @Test
+    @DisplayName("CPF válido só com dígitos e formatado")
+    public void testValidCpf() {
+        assertTrue(CPFUtils.isValidCPF("52998224725"));
+        assertTrue(CPFUtils.isValidCPF("529.982.247-25"));
+        assertTrue(CPFUtils.isValidCPF("59632418042"));
+        assertTrue(CPFUtils.isValidCPF(new StringBuilder("596.324.180-42")));
+    }
+
+    @Test
+    @DisplayName("CPF com dígito verificador errado")
+    public void testInvalidCheckDigits() {
+        assertFalse(CPFUtils.isValidCPF("52998224724"));
+        assertFalse(CPFUtils.isValidCPF("52998224715"));
+        assertFalse(CPFUtils.isValidCPF("12345678900"));
+    }
+
+    @Test
+    @DisplayName("CPF com tamanho errado, dígitos repetidos ou nulo")
+    public void testMalformedCpf() {
+        assertFalse(CPFUtils.isValidCPF("5299822472"));
+        assertFalse(CPFUtils.isValidCPF("529982247250"));
+        assertFalse(CPFUtils.isValidCPF("111.111.111-11"));
+        assertFalse(CPFUtils.isValidCPF(""));
+        assertFalse(CPFUtils.isValidCPF((String) null));
+    }
+
+    @Test
+    @DisplayName("Validação em lote")
+    public void testValidateAll() {
+        String[] cpfs = {"52998224725", "12345678900", "596.324.180-42", null};
+        boolean[] results = new boolean[cpfs.length];
+        assertEquals(2, CPFUtils.validateAll(cpfs, results));
+        assertArrayEquals(new boolean[]{true, false, true, false}, results);
+    }
+}
@@ -0,0 +1,452 @@
+package com.nttdata.user.api.loadtest;
+
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeAction;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.CancellationReason;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableResult;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.Select;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * {@code AmazonDynamoDB} em memória para a tabela {@code User} (chave {@code id})
+ * e seus índices globais. Cobre só o que a aplicação usa: put/get/update/delete,
+ * Query com igualdade na chave de partição, Scan segmentado, operações em lote,
+ * transações de Put/Delete e condições {@code attribute_exists}/{@code attribute_not_exists}. Não simula capacidade nem latência
+ * de rede; o custo medido é o da aplicação.
+ */
+public class InMemoryAmazonDynamoDB extends AbstractAmazonDynamoDB {
+
+    private static final String TABLE_NAME = "User";
+    private static final String HASH_KEY = "id";
+
+    private final ConcurrentSkipListMap<String, Map<String, AttributeValue>> items = new ConcurrentSkipListMap<>();
+    private final Map<String, IndexDefinition> indexes = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentHashMap<String, ConcurrentSkipListMap<String, String>>> indexEntries = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    public InMemoryAmazonDynamoDB() {
+        addIndex("EmailIndex", "email", null);
+        addIndex("CpfIndex", "cpf", null);
+        addIndex("TipoUsuarioIndex", "tipoShard", "id");
+    }
+
+    public void addIndex(String indexName, String hashKey, String rangeKey) {
+        indexes.put(indexName, new IndexDefinition(hashKey, rangeKey));
+        indexEntries.put(indexName, new ConcurrentHashMap<>());
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public PutItemResult putItem(PutItemRequest request) {
+        synchronized (writeLock) {
+            String id = id(request.getItem());
+            Map<String, AttributeValue> existing = items.get(id);
+            checkCondition(existing, request.getConditionExpression(), request.getExpressionAttributeNames(), request.getExpected());
+            store(id, new HashMap<>(request.getItem()));
+        }
+        return new PutItemResult();
+    }
+
+    @Override
+    public UpdateItemResult updateItem(UpdateItemRequest request) {
+        synchronized (writeLock) {
+            String id = id(request.getKey());
+            Map<String, AttributeValue> existing = items.get(id);
+            checkCondition(existing, request.getConditionExpression(), request.getExpressionAttributeNames(), request.getExpected());
+            Map<String, AttributeValue> updated = existing == null ? new HashMap<>(request.getKey()) : new HashMap<>(existing);
+            if (request.getAttributeUpdates() != null) {
+                for (Map.Entry<String, AttributeValueUpdate> update : request.getAttributeUpdates().entrySet()) {
+                    String action = update.getValue().getAction();
+                    if (AttributeAction.DELETE.toString().equals(action)) {
+                        updated.remove(update.getKey());
+                    } else {
+                        updated.put(update.getKey(), update.getValue().getValue());
+                    }
+                }
+            }
+            if (request.getUpdateExpression() != null) {
+                applySetExpression(updated, request.getUpdateExpression(), request.getExpressionAttributeNames(), request.getExpressionAttributeValues());
+            }
+            store(id, updated);
+            if (ReturnValue.ALL_NEW.toString().equals(request.getReturnValues())) {
+                return new UpdateItemResult().withAttributes(new HashMap<>(updated));
+            }
+        }
+        return new UpdateItemResult();
+    }
+
+    @Override
+    public GetItemResult getItem(GetItemRequest request) {
+        Map<String, AttributeValue> item = items.get(id(request.getKey()));
+        return new GetItemResult().withItem(item == null ? null : project(item, request.getProjectionExpression(), request.getExpressionAttributeNames()));
+    }
+
+    @Override
+    public DeleteItemResult deleteItem(DeleteItemRequest request) {
+        synchronized (writeLock) {
+            remove(id(request.getKey()));
+        }
+        return new DeleteItemResult();
+    }
+
+    @Override
+    public QueryResult query(QueryRequest request) {
+        Map<String, String> names = request.getExpressionAttributeNames();
+        Map<String, AttributeValue> values = request.getExpressionAttributeValues();
+        String indexName = request.getIndexName();
+        int limit = request.getLimit() == null ? Integer.MAX_VALUE : request.getLimit();
+        boolean count = Select.COUNT.toString().equals(request.getSelect());
+
+        List<Map<String, AttributeValue>> matches = new ArrayList<>();
+        Map<String, AttributeValue> lastEvaluatedKey = null;
+        if (indexName == null) {
+            String id = hashValue(HASH_KEY, request.getKeyConditions(), request.getKeyConditionExpression(), names, values);
+            Map<String, AttributeValue> item = items.get(id);
+            if (item != null) {
+                matches.add(item);
+            }
+        } else {
+            IndexDefinition index = indexes.get(indexName);
+            String hashValue = hashValue(index.hashKey(), request.getKeyConditions(), request.getKeyConditionExpression(), names, values);
+            NavigableMap<String, String> entries = indexEntries.get(indexName).get(hashValue);
+            if (entries != null) {
+                if (Boolean.FALSE.equals(request.getScanIndexForward())) {
+                    entries = entries.descendingMap();
+                }
+                if (request.getExclusiveStartKey() != null) {
+                    entries = entries.tailMap(sortKey(index, request.getExclusiveStartKey()), false);
+                }
+                for (String id : entries.values()) {
+                    Map<String, AttributeValue> item = items.get(id);
+                    if (item == null) {
+                        continue;
+                    }
+                    if (matches.size() == limit) {
+                        lastEvaluatedKey = indexKey(index, matches.get(matches.size() - 1));
+                        break;
+                    }
+                    matches.add(item);
+                }
+            }
+        }
+
+        QueryResult result = new QueryResult()
+            .withCount(matches.size())
+            .withScannedCount(matches.size())
+            .withLastEvaluatedKey(lastEvaluatedKey);
+        if (!count) {
+            List<Map<String, AttributeValue>> projected = new ArrayList<>(matches.size());
+            for (Map<String, AttributeValue> item : matches) {
+                projected.add(project(item, request.getProjectionExpression(), names));
+            }
+            result.setItems(projected);
+        }
+        return result;
+    }
+
+    @Override
+    public ScanResult scan(ScanRequest request) {
+        int limit = request.getLimit() == null ? Integer.MAX_VALUE : request.getLimit();
+        int segment = request.getSegment() == null ? 0 : request.getSegment();
+        int totalSegments = request.getTotalSegments() == null ? 1 : request.getTotalSegments();
+        NavigableMap<String, Map<String, AttributeValue>> view = items;
+        if (request.getExclusiveStartKey() != null) {
+            view = items.tailMap(id(request.getExclusiveStartKey()), false);
+        }
+
+        List<Map<String, AttributeValue>> page = new ArrayList<>();
+        Map<String, AttributeValue> lastEvaluatedKey = null;
+        for (Map.Entry<String, Map<String, AttributeValue>> entry : view.entrySet()) {
+            if (Math.floorMod(entry.getKey().hashCode(), totalSegments) != segment) {
+                continue;
+            }
+            if (page.size() == limit) {
+                lastEvaluatedKey = Map.of(HASH_KEY, page.get(page.size() - 1).get(HASH_KEY));
+                break;
+            }
+            page.add(entry.getValue());
+        }
+
+        List<Map<String, AttributeValue>> projected = new ArrayList<>(page.size());
+        for (Map<String, AttributeValue> item : page) {
+            projected.add(project(item, request.getProjectionExpression(), request.getExpressionAttributeNames()));
+        }
+        return new ScanResult()
+            .withItems(projected)
+            .withCount(projected.size())
+            .withScannedCount(projected.size())
+            .withLastEvaluatedKey(lastEvaluatedKey);
+    }
+
+    @Override
+    public BatchWriteItemResult batchWriteItem(BatchWriteItemRequest request) {
+        synchronized (writeLock) {
+            for (List<WriteRequest> writes : request.getRequestItems().values()) {
+                for (WriteRequest write : writes) {
+                    if (write.getPutRequest() != null) {
+                        Map<String, AttributeValue> item = write.getPutRequest().getItem();
+                        store(id(item), new HashMap<>(item));
+                    } else if (write.getDeleteRequest() != null) {
+                        remove(id(write.getDeleteRequest().getKey()));
+                    }
+                }
+            }
+        }
+        return new BatchWriteItemResult().withUnprocessedItems(Map.of());
+    }
+
+    @Override
+    public BatchGetItemResult batchGetItem(BatchGetItemRequest request) {
+        Map<String, List<Map<String, AttributeValue>>> responses = new HashMap<>();
+        for (Map.Entry<String, KeysAndAttributes> table : request.getRequestItems().entrySet()) {
+            List<Map<String, AttributeValue>> found = new ArrayList<>();
+            KeysAndAttributes keysAndAttributes = table.getValue();
+            for (Map<String, AttributeValue> key : keysAndAttributes.getKeys()) {
+                Map<String, AttributeValue> item = items.get(id(key));
+                if (item != null) {
+                    found.add(project(item, keysAndAttributes.getProjectionExpression(), keysAndAttributes.getExpressionAttributeNames()));
+                }
+            }
+            responses.put(table.getKey(), found);
+        }
+        return new BatchGetItemResult().withResponses(responses).withUnprocessedKeys(Map.of());
+    }
+
+    @Override
+    public TransactWriteItemsResult transactWriteItems(TransactWriteItemsRequest request) {
+        synchronized (writeLock) {
+            List<CancellationReason> reasons = new ArrayList<>();
+            boolean canceled = false;
+            for (TransactWriteItem write : request.getTransactItems()) {
+                try {
+                    if (write.getPut() != null) {
+                        checkCondition(items.get(id(write.getPut().getItem())), write.getPut().getConditionExpression(),
+                            write.getPut().getExpressionAttributeNames(), null);
+                    } else if (write.getDelete() != null) {
+                        checkCondition(items.get(id(write.getDelete().getKey())), write.getDelete().getConditionExpression(),
+                            write.getDelete().getExpressionAttributeNames(), null);
+                    } else {
+                        throw new UnsupportedOperationException("Item de transação não suportado: " + write);
+                    }
+                    reasons.add(new CancellationReason().withCode("None"));
+                } catch (ConditionalCheckFailedException e) {
+                    reasons.add(new CancellationReason().withCode("ConditionalCheckFailed").withMessage(e.getErrorMessage()));
+                    canceled = true;
+                }
+            }
+            if (canceled) {
+                TransactionCanceledException exception = new TransactionCanceledException("Transaction cancelled");
+                exception.setCancellationReasons(reasons);
+                throw exception;
+            }
+            for (TransactWriteItem write : request.getTransactItems()) {
+                if (write.getPut() != null) {
+                    store(id(write.getPut().getItem()), new HashMap<>(write.getPut().getItem()));
+                } else {
+                    remove(id(write.getDelete().getKey()));
+                }
+            }
+        }
+        return new TransactWriteItemsResult();
+    }
+
+    @Override
+    public DescribeTableResult describeTable(DescribeTableRequest request) {
+        return new DescribeTableResult().withTable(new TableDescription()
+            .withTableName(TABLE_NAME)
+            .withItemCount((long) items.size()));
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    private void store(String id, Map<String, AttributeValue> item) {
+        Map<String, AttributeValue> previous = items.put(id, item);
+        for (Map.Entry<String, IndexDefinition> index : indexes.entrySet()) {
+            if (previous != null) {
+                unindex(index.getKey(), index.getValue(), previous);
+            }
+            String hashValue = stringValue(item.get(index.getValue().hashKey()));
+            if (hashValue != null) {
+                indexEntries.get(index.getKey())
+                    .computeIfAbsent(hashValue, ignored -> new ConcurrentSkipListMap<>())
+                    .put(sortKey(index.getValue(), item), id);
+            }
+        }
+    }
+
+    private void remove(String id) {
+        Map<String, AttributeValue> previous = items.remove(id);
+        if (previous != null) {
+            indexes.forEach((name, index) -> unindex(name, index, previous));
+        }
+    }
+
+    private void unindex(String indexName, IndexDefinition index, Map<String, AttributeValue> item) {
+        String hashValue = stringValue(item.get(index.hashKey()));
+        if (hashValue != null) {
+            Map<String, String> entries = indexEntries.get(indexName).get(hashValue);
+            if (entries != null) {
+                entries.remove(sortKey(index, item));
+            }
+        }
+    }
+
+    private static String sortKey(IndexDefinition index, Map<String, AttributeValue> item) {
+        String id = stringValue(item.get(HASH_KEY));
+        if (index.rangeKey() == null) {
+            return id;
+        }
+        return stringValue(item.get(index.rangeKey())) + '\u0000' + id;
+    }
+
+    private static Map<String, AttributeValue> indexKey(IndexDefinition index, Map<String, AttributeValue> item) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put(HASH_KEY, item.get(HASH_KEY));
+        key.put(index.hashKey(), item.get(index.hashKey()));
+        if (index.rangeKey() != null) {
+            key.put(index.rangeKey(), item.get(index.rangeKey()));
+        }
+        return key;
+    }
+
+    private static void checkCondition(Map<String, AttributeValue> existing, String conditionExpression,
+                                       Map<String, String> names, Map<String, ExpectedAttributeValue> expected) {
+        if (conditionExpression != null) {
+            for (String clause : conditionExpression.split("(?i)\\s+AND\\s+")) {
+                String trimmed = clause.trim();
+                if (trimmed.startsWith("attribute_not_exists(")) {
+                    String attribute = resolve(trimmed.substring("attribute_not_exists(".length(), trimmed.length() - 1).trim(), names);
+                    if (existing != null && existing.containsKey(attribute)) {
+                        throw new ConditionalCheckFailedException("The conditional request failed");
+                    }
+                } else if (trimmed.startsWith("attribute_exists(")) {
+                    String attribute = resolve(trimmed.substring("attribute_exists(".length(), trimmed.length() - 1).trim(), names);
+                    if (existing == null || !existing.containsKey(attribute)) {
+                        throw new ConditionalCheckFailedException("The conditional request failed");
+                    }
+                } else {
+                    throw new UnsupportedOperationException("Condição não suportada: " + trimmed);
+                }
+            }
+        }
+        if (expected != null) {
+            for (Map.Entry<String, ExpectedAttributeValue> entry : expected.entrySet()) {
+                ExpectedAttributeValue value = entry.getValue();
+                AttributeValue current = existing == null ? null : existing.get(entry.getKey());
+                if (Boolean.FALSE.equals(value.getExists()) && current != null) {
+                    throw new ConditionalCheckFailedException("The conditional request failed");
+                }
+                if (value.getValue() != null && !value.getValue().equals(current)) {
+                    throw new ConditionalCheckFailedException("The conditional request failed");
+                }
+            }
+        }
+    }
+
+    private static void applySetExpression(Map<String, AttributeValue> item, String expression,
+                                           Map<String, String> names, Map<String, AttributeValue> values) {
+        String body = expression.trim();
+        if (!body.regionMatches(true, 0, "SET ", 0, 4)) {
+            throw new UnsupportedOperationException("UpdateExpression não suportada: " + expression);
+        }
+        for (String assignment : body.substring(4).split(",")) {
+            String[] parts = assignment.split("=");
+            item.put(resolve(parts[0].trim(), names), values.get(parts[1].trim()));
+        }
+    }
+
+    private static String hashValue(String hashKey, Map<String, Condition> keyConditions, String keyConditionExpression,
+                                    Map<String, String> names, Map<String, AttributeValue> values) {
+        if (keyConditions != null && keyConditions.containsKey(hashKey)) {
+            return stringValue(keyConditions.get(hashKey).getAttributeValueList().get(0));
+        }
+        if (keyConditionExpression != null) {
+            for (String clause : keyConditionExpression.split("(?i)\\s+AND\\s+")) {
+                String[] parts = clause.split("=");
+                if (parts.length == 2 && hashKey.equals(resolve(parts[0].trim(), names))) {
+                    return stringValue(values.get(parts[1].trim()));
+                }
+            }
+        }
+        throw new IllegalArgumentException("Query sem igualdade na chave " + hashKey);
+    }
+
+    private static Map<String, AttributeValue> project(Map<String, AttributeValue> item, String projectionExpression,
+                                                       Map<String, String> names) {
+        if (projectionExpression == null || projectionExpression.isBlank()) {
+            return new HashMap<>(item);
+        }
+        Map<String, AttributeValue> projected = new HashMap<>();
+        for (String attribute : projectionExpression.split(",")) {
+            String name = resolve(attribute.trim(), names);
+            AttributeValue value = item.get(name);
+            if (value != null) {
+                projected.put(name, value);
+            }
+        }
+        return projected;
+    }
+
+    private static String resolve(String token, Map<String, String> names) {
+        if (token.startsWith("#") && names != null && names.containsKey(token)) {
+            return names.get(token);
+        }
+        return token;
+    }
+
+    private static String id(Map<String, AttributeValue> key) {
+        return stringValue(key.get(HASH_KEY));
+    }
+
+    private static String stringValue(AttributeValue value) {
+        if (value == null) {
+            return null;
+        }
+        return value.getS() != null ? value.getS() : value.getN();
+    }
+
+    private record IndexDefinition(String hashKey, String rangeKey) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.nttdata.user.api.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resultado de uma execução do {@link OpenModelLoadGenerator}: histogramas de
+ * latência (em microssegundos) e contagem de status HTTP por operação.
+ */
+final class LoadTestReport {
+
+    private final double targetRate;
+    private final String arrivals;
+    private final long elapsedNanos;
+    private final Map<String, OperationStats> operations;
+
+    LoadTestReport(double targetRate, String arrivals, long elapsedNanos, Map<String, OperationStats> operations) {
+        this.targetRate = targetRate;
+        this.arrivals = arrivals;
+        this.elapsedNanos = elapsedNanos;
+        this.operations = new TreeMap<>(operations);
+    }
+
+    /**
+     * Respostas que não são sucesso nem rejeição por sobrecarga (503), mais falhas de transporte.
+     */
+    long unexpectedResponses() {
+        long unexpected = 0;
+        for (OperationStats operation : operations.values()) {
+            unexpected += operation.unexpected();
+        }
+        return unexpected;
+    }
+
+    long p99Micros(String operation) {
+        OperationStats stats = operations.get(operation);
+        return stats == null ? 0 : stats.latency.getValueAtPercentile(99.0);
+    }
+
+    Map<String, Object> toMap() {
+        double seconds = elapsedNanos / 1e9;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("targetRate", targetRate);
+        report.put("arrivals", arrivals);
+        report.put("elapsedSeconds", seconds);
+
+        Map<String, Object> perOperation = new LinkedHashMap<>();
+        long completed = 0;
+        for (OperationStats stats : operations.values()) {
+            Histogram latency = stats.latency;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("completed", latency.getTotalCount());
+            entry.put("throughput", latency.getTotalCount() / seconds);
+            entry.put("dropped", stats.dropped.sum());
+            entry.put("p50Micros", latency.getValueAtPercentile(50.0));
+            entry.put("p90Micros", latency.getValueAtPercentile(90.0));
+            entry.put("p99Micros", latency.getValueAtPercentile(99.0));
+            entry.put("p999Micros", latency.getValueAtPercentile(99.9));
+            entry.put("maxMicros", latency.getMaxValue());
+            Map<String, Long> statuses = new TreeMap<>();
+            stats.statuses.forEach((status, count) -> statuses.put(status < 0 ? "erro" : String.valueOf(status), count.sum()));
+            entry.put("statuses", statuses);
+            perOperation.put(stats.name, entry);
+            completed += latency.getTotalCount();
+        }
+        report.put("throughput", completed / seconds);
+        report.put("operations", perOperation);
+        return report;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(String.format("%-10s %10s %10s %10s %10s %10s %10s %10s%n",
+            "operação", "ok/s", "p50(ms)", "p90(ms)", "p99(ms)", "p999(ms)", "max(ms)", "descart."));
+        double seconds = elapsedNanos / 1e9;
+        for (OperationStats stats : operations.values()) {
+            Histogram latency = stats.latency;
+            text.append(String.format("%-10s %10.1f %10.2f %10.2f %10.2f %10.2f %10.2f %10d%n",
+                stats.name,
+                latency.getTotalCount() / seconds,
+                latency.getValueAtPercentile(50.0) / 1000.0,
+                latency.getValueAtPercentile(90.0) / 1000.0,
+                latency.getValueAtPercentile(99.0) / 1000.0,
+                latency.getValueAtPercentile(99.9) / 1000.0,
+                latency.getMaxValue() / 1000.0,
+                stats.dropped.sum()));
+        }
+        return text.toString();
+    }
+
+    static final class OperationStats {
+
+        private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+        private final String name;
+        private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder dropped = new LongAdder();
+
+        OperationStats(String name) {
+            this.name = name;
+        }
+
+        void record(long latencyNanos, int status) {
+            latency.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+            statuses.computeIfAbsent(status, ignored -> new LongAdder()).increment();
+        }
+
+        void recordDropped() {
+            dropped.increment();
+        }
+
+        long unexpected() {
+            long unexpected = dropped.sum();
+            for (Map.Entry<Integer, LongAdder> status : statuses.entrySet()) {
+                int code = status.getKey();
+                if (code < 200 || (code >= 300 && code != 503)) {
+                    unexpected += status.getValue().sum();
+                }
+            }
+            return unexpected;
+        }
+    }
+}
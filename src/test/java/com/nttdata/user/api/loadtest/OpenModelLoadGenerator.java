@@ -0,0 +1,84 @@
+package com.nttdata.user.api.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Gerador de carga em modelo aberto: as requisições chegam na taxa configurada
+ * independentemente de as anteriores terem terminado. A latência é medida a
+ * partir do instante em que a requisição deveria ter saído, e não de quando
+ * saiu, para que atrasos do próprio gerador ou filas no servidor não sejam
+ * escondidos (coordinated omission).
+ */
+final class OpenModelLoadGenerator {
+
+    enum Arrivals {
+        CONSTANT,
+        POISSON
+    }
+
+    record LoadRequest(String operation, HttpRequest httpRequest) {
+    }
+
+    private final HttpClient client;
+    private final int maxInFlight;
+    private final Arrivals arrivals;
+
+    OpenModelLoadGenerator(HttpClient client, int maxInFlight, Arrivals arrivals) {
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+        this.arrivals = arrivals;
+    }
+
+    LoadTestReport run(double ratePerSecond, Duration duration, LongFunction<LoadRequest> requests) throws InterruptedException {
+        Map<String, LoadTestReport.OperationStats> stats = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long intended = start;
+        for (long sequence = 0; intended < end; sequence++) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            LoadRequest request = requests.apply(sequence);
+            LoadTestReport.OperationStats operation = stats.computeIfAbsent(request.operation(), LoadTestReport.OperationStats::new);
+            if (!inFlight.tryAcquire()) {
+                operation.recordDropped();
+            } else {
+                long scheduledAt = intended;
+                client.sendAsync(request.httpRequest(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        operation.record(System.nanoTime() - scheduledAt, response == null ? -1 : response.statusCode());
+                        inFlight.release();
+                    });
+            }
+            intended += nextIntervalNanos(meanIntervalNanos);
+        }
+
+        // Espera as requisições ainda em voo; o que não terminar em 60s fica fora do relatório.
+        if (inFlight.tryAcquire(maxInFlight, 60, TimeUnit.SECONDS)) {
+            inFlight.release(maxInFlight);
+        }
+        return new LoadTestReport(ratePerSecond, arrivals.name(), System.nanoTime() - start, stats);
+    }
+
+    private long nextIntervalNanos(double meanIntervalNanos) {
+        if (arrivals == Arrivals.POISSON) {
+            return Math.max(1L, (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos));
+        }
+        return Math.max(1L, (long) meanIntervalNanos);
+    }
+}
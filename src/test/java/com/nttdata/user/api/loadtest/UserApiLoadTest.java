@@ -0,0 +1,156 @@
+package com.nttdata.user.api.loadtest;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nttdata.user.api.data.dto.UserDto;
+import com.nttdata.user.api.data.dto.UserDtoType;
+import com.nttdata.user.api.fixture.Cpfs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de carga ponta a ponta de {@code /api/users/register} e {@code /api/users/login}.
+ * Sobe a aplicação inteira numa porta aleatória com o {@link InMemoryAmazonDynamoDB}
+ * no lugar do DynamoDB, de modo que nenhuma rede externa é necessária.
+ * <p>
+ * Fica fora do {@code mvn test}; para rodar:
+ * <pre>
+ * mvn -P load-test test -Dloadtest.rps=2000 -Dloadtest.duration=PT60S -Dloadtest.login-ratio=0.9
+ * </pre>
+ * Propriedades: {@code loadtest.rps}, {@code loadtest.duration}, {@code loadtest.warmup},
+ * {@code loadtest.login-ratio}, {@code loadtest.seed-users}, {@code loadtest.max-in-flight},
+ * {@code loadtest.arrivals} ({@code CONSTANT} ou {@code POISSON}) e, opcionalmente,
+ * {@code loadtest.max-p99-ms} para falhar o teste acima de um p99. Propriedades da
+ * aplicação também valem, por exemplo {@code -Dspring.threads.virtual.enabled=true}
+ * ou {@code -Dpassword.hashing.strength=12}. O relatório em JSON fica em
+ * {@code target/loadtest/}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.main.allow-bean-definition-overriding=true",
+        "user.login.rate-limit.enabled=false" })
+@Import(UserApiLoadTest.InMemoryDynamoDBConfig.class)
+public class UserApiLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserApiLoadTest.class);
+    private static final String PASSWORD = "senha-carga";
+
+    @TestConfiguration
+    static class InMemoryDynamoDBConfig {
+
+        @Bean
+        public AmazonDynamoDB amazonDynamoDB() {
+            return new InMemoryAmazonDynamoDB();
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicLong nextCpf = new AtomicLong(100_000_000L);
+    private HttpClient client;
+    private int seedUsers;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        seedUsers = Integer.getInteger("loadtest.seed-users", 200);
+        for (int i = 0; i < seedUsers; i++) {
+            HttpResponse<String> response = client.send(registerRequest(seedEmail(i), nextCpf.getAndIncrement()),
+                HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, response.statusCode(), response.body());
+        }
+    }
+
+    @Test
+    @DisplayName("Carga aberta de logins e registros")
+    public void testRegisterAndLoginUnderLoad() throws Exception {
+        double rate = Double.parseDouble(System.getProperty("loadtest.rps", "200"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+        double loginRatio = Double.parseDouble(System.getProperty("loadtest.login-ratio", "0.8"));
+        OpenModelLoadGenerator generator = new OpenModelLoadGenerator(client,
+            Integer.getInteger("loadtest.max-in-flight", 10_000),
+            OpenModelLoadGenerator.Arrivals.valueOf(System.getProperty("loadtest.arrivals", "CONSTANT")));
+
+        if (!warmup.isZero()) {
+            generator.run(rate, warmup, sequence -> nextRequest(loginRatio));
+        }
+        LoadTestReport report = generator.run(rate, duration, sequence -> nextRequest(loginRatio));
+
+        logger.info("Resultado do teste de carga:\n{}", report);
+        Path output = Path.of("target", "loadtest", "report-" + Instant.now().toEpochMilli() + ".json");
+        Files.createDirectories(output.getParent());
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), report.toMap());
+
+        assertEquals(0, report.unexpectedResponses(), "Respostas inesperadas ou descartadas pelo gerador");
+        String maxP99 = System.getProperty("loadtest.max-p99-ms");
+        if (maxP99 != null) {
+            long limitMicros = Long.parseLong(maxP99) * 1000;
+            assertTrue(report.p99Micros("login") <= limitMicros, "p99 de login acima do limite");
+            assertTrue(report.p99Micros("register") <= limitMicros, "p99 de registro acima do limite");
+        }
+    }
+
+    private OpenModelLoadGenerator.LoadRequest nextRequest(double loginRatio) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < loginRatio) {
+            UserDto login = new UserDto(null, null, null, seedEmail(random.nextInt(seedUsers)), PASSWORD, null);
+            return new OpenModelLoadGenerator.LoadRequest("login", post("/api/users/login", login));
+        }
+        long cpf = nextCpf.getAndIncrement();
+        return new OpenModelLoadGenerator.LoadRequest("register", registerRequest("carga" + cpf + "@example.com", cpf));
+    }
+
+    private HttpRequest registerRequest(String email, long cpfBase) {
+        UserDto user = new UserDto(null, "Usuário de carga", Cpfs.valid(cpfBase), email, PASSWORD, UserDtoType.CLIENTE);
+        return post("/api/users/register", user);
+    }
+
+    private HttpRequest post(String path, UserDto body) {
+        try {
+            return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String seedEmail(int index) {
+        return "seed" + index + "@example.com";
+    }
+}
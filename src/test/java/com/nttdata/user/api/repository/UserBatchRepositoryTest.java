@@ -0,0 +1,68 @@
+package com.nttdata.user.api.repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.data.entity.UserEntityType;
+import com.nttdata.user.api.exception.UserAlreadyExistsException;
+import com.nttdata.user.api.loadtest.InMemoryAmazonDynamoDB;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserBatchRepositoryTest {
+
+    private InMemoryAmazonDynamoDB amazonDynamoDB;
+    private UserBatchRepository userBatchRepository;
+
+    @BeforeEach
+    public void setUp() {
+        amazonDynamoDB = new InMemoryAmazonDynamoDB();
+        userBatchRepository = new UserBatchRepository(
+            new UserRegistrationRepository(amazonDynamoDB, DynamoDBMapperConfig.DEFAULT), 3, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userBatchRepository.shutdown();
+    }
+
+    @Test
+    @DisplayName("Dois usuários com o mesmo CPF ou e-mail no bloco: só um é gravado, o outro é duplicado")
+    public void testSaveChunk_ConcurrentDuplicates() {
+        UserChunkResult result = userBatchRepository.saveChunk(List.of(
+            user("a", "59632418042", "a@example.com"),
+            user("b", "596.324.180-42", "b@example.com"),
+            user("c", "52998224725", "c@example.com"),
+            user("d", "11144477735", "C@Example.com")));
+
+        assertTrue(result.failed().isEmpty());
+        assertEquals(2, result.duplicates().size());
+        assertTrue(result.duplicates().containsKey("a") != result.duplicates().containsKey("b"));
+        assertTrue(result.duplicates().containsKey("c") != result.duplicates().containsKey("d"));
+        assertTrue(result.duplicates().containsValue(UserAlreadyExistsException.CPF));
+        assertTrue(result.duplicates().containsValue(UserAlreadyExistsException.EMAIL));
+        assertEquals(6, amazonDynamoDB.size());
+    }
+
+    @Test
+    @DisplayName("Regravar um usuário já gravado, com o mesmo id, não é duplicado")
+    public void testSaveChunk_ReplayIsWritten() {
+        userBatchRepository.saveChunk(List.of(user("a", "59632418042", "a@example.com")));
+
+        UserChunkResult result = userBatchRepository.saveChunk(List.of(user("a", "59632418042", "a@example.com")));
+
+        assertEquals(new UserChunkResult(Map.of(), Set.of()), result);
+        assertEquals(3, amazonDynamoDB.size());
+    }
+
+    private static UserEntity user(String id, String cpf, String email) {
+        return new UserEntity(id, "John", UserKeys.cpf(cpf), UserKeys.email(email), "encodedPassword", UserEntityType.CLIENTE);
+    }
+}
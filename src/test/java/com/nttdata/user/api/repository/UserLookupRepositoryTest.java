@@ -0,0 +1,70 @@
+package com.nttdata.user.api.repository;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.nttdata.user.api.data.entity.UserEntityType;
+import com.nttdata.user.api.loadtest.InMemoryAmazonDynamoDB;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserLookupRepositoryTest {
+
+    private InMemoryAmazonDynamoDB amazonDynamoDB;
+    private UserLookupRepository userLookupRepository;
+
+    @BeforeEach
+    public void setUp() {
+        amazonDynamoDB = new InMemoryAmazonDynamoDB();
+        userLookupRepository = new UserLookupRepository(amazonDynamoDB);
+        amazonDynamoDB.putItem(new PutItemRequest("User", Map.of(
+            "id", new AttributeValue("1"),
+            "nome", new AttributeValue("John"),
+            "cpf", new AttributeValue("59632418042"),
+            "email", new AttributeValue("john@example.com"),
+            "senha", new AttributeValue("encodedPassword"),
+            "tipoUsuario", new AttributeValue("CLIENTE"))));
+    }
+
+    @Test
+    @DisplayName("Existência por CPF e e-mail consultada só pela contagem")
+    public void testExists() {
+        assertTrue(userLookupRepository.existsByCpf("59632418042"));
+        assertFalse(userLookupRepository.existsByCpf("52998224725"));
+        assertTrue(userLookupRepository.existsByEmail("john@example.com"));
+        assertFalse(userLookupRepository.existsByEmail("unknown@example.com"));
+    }
+
+    @Test
+    @DisplayName("Credenciais trazem apenas id, senha e tipo")
+    public void testFindCredentialsByEmail() {
+        Optional<UserCredentials> credentials = userLookupRepository.findCredentialsByEmail("john@example.com");
+
+        assertEquals(Optional.of(new UserCredentials("1", "encodedPassword", UserEntityType.CLIENTE)), credentials);
+        assertTrue(userLookupRepository.findCredentialsByEmail("unknown@example.com").isEmpty());
+    }
+
+    @Test
+    @DisplayName("CPF formatado e e-mail com maiúsculas acham o valor normalizado; item antigo com o valor digitado também é achado")
+    public void testLookupNormalizesArguments() {
+        assertTrue(userLookupRepository.existsByCpf("596.324.180-42"));
+        assertTrue(userLookupRepository.existsByEmail(" John@Example.COM"));
+        assertEquals(Optional.of(new UserCredentials("1", "encodedPassword", UserEntityType.CLIENTE)),
+            userLookupRepository.findCredentialsByEmail("JOHN@example.com"));
+
+        amazonDynamoDB.putItem(new PutItemRequest("User", Map.of(
+            "id", new AttributeValue("2"),
+            "cpf", new AttributeValue("529.982.247-25"),
+            "email", new AttributeValue("Maria@Example.com"),
+            "senha", new AttributeValue("encodedPassword2"))));
+        assertTrue(userLookupRepository.existsByCpf("529.982.247-25"));
+        assertTrue(userLookupRepository.existsByEmail("Maria@Example.com"));
+        assertEquals(Optional.of(new UserCredentials("2", "encodedPassword2")),
+            userLookupRepository.findCredentialsByEmail("Maria@Example.com"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.nttdata.user.api.repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.data.entity.UserEntityType;
+import com.nttdata.user.api.exception.UserAlreadyExistsException;
+import com.nttdata.user.api.loadtest.InMemoryAmazonDynamoDB;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserRegistrationRepositoryTest {
+
+    private InMemoryAmazonDynamoDB amazonDynamoDB;
+    private UserRegistrationRepository userRegistrationRepository;
+
+    @BeforeEach
+    public void setUp() {
+        amazonDynamoDB = new InMemoryAmazonDynamoDB();
+        userRegistrationRepository = new UserRegistrationRepository(amazonDynamoDB, DynamoDBMapperConfig.DEFAULT);
+    }
+
+    @Test
+    @DisplayName("Registro grava o usuário e as reservas de CPF e e-mail")
+    public void testCreate_WritesUserAndGuards() {
+        UserEntity created = userRegistrationRepository.create(user("596.324.180-42", "John@Example.com"));
+
+        assertNotNull(created.getId());
+        assertEquals(3, amazonDynamoDB.size());
+        Map<String, AttributeValue> cpfGuard = amazonDynamoDB.getItem(new GetItemRequest("User",
+            Map.of("id", new AttributeValue(UserKeys.cpfGuardId("59632418042"))))).getItem();
+        assertEquals(created.getId(), cpfGuard.get(UserKeys.GUARD_OWNER_ATTRIBUTE).getS());
+        assertNotNull(amazonDynamoDB.getItem(new GetItemRequest("User",
+            Map.of("id", new AttributeValue(UserKeys.emailGuardId("john@example.com"))))).getItem());
+    }
+
+    @Test
+    @DisplayName("CPF já reservado cancela a transação inteira")
+    public void testCreate_DuplicateCpf() {
+        userRegistrationRepository.create(user("59632418042", "john@example.com"));
+
+        UserAlreadyExistsException exception = assertThrows(UserAlreadyExistsException.class,
+            () -> userRegistrationRepository.create(user("596.324.180-42", "other@example.com")));
+
+        assertEquals(UserAlreadyExistsException.CPF, exception.getAttribute());
+        assertEquals(3, amazonDynamoDB.size());
+    }
+
+    @Test
+    @DisplayName("E-mail já reservado, com outra grafia, cancela a transação")
+    public void testCreate_DuplicateEmail() {
+        userRegistrationRepository.create(user("59632418042", "john@example.com"));
+
+        UserAlreadyExistsException exception = assertThrows(UserAlreadyExistsException.class,
+            () -> userRegistrationRepository.create(user("52998224725", " JOHN@example.com")));
+
+        assertEquals(UserAlreadyExistsException.EMAIL, exception.getAttribute());
+        assertEquals(3, amazonDynamoDB.size());
+    }
+
+    private static UserEntity user(String cpf, String email) {
+        return new UserEntity(null, "John", cpf, email, "encodedPassword", UserEntityType.CLIENTE);
+    }
+
+    @Test
+    @DisplayName("Id com forma de reserva, de revogação ou longo demais é recusado sem gravar nada")
+    public void testCreate_RejectsAuxiliaryOrLongId() {
+        UserEntity guardShaped = user("596.324.180-42", "john@example.com");
+        guardShaped.setId(UserKeys.cpfGuardId("52998224725"));
+        UserEntity revokedShaped = user("529.982.247-25", "jane@example.com");
+        revokedShaped.setId(UserKeys.revokedTokenId("token-1"));
+        UserEntity tooLong = user("111.444.777-35", "joe@example.com");
+        tooLong.setId("x".repeat(37));
+
+        assertThrows(IllegalArgumentException.class, () -> userRegistrationRepository.create(guardShaped));
+        assertThrows(IllegalArgumentException.class, () -> userRegistrationRepository.create(revokedShaped));
+        assertThrows(IllegalArgumentException.class, () -> userRegistrationRepository.create(tooLong));
+        assertEquals(0, amazonDynamoDB.size());
+    }
+}
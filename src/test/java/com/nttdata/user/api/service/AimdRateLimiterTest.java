@@ -0,0 +1,92 @@
+package com.nttdata.user.api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AimdRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("Bucket cheio libera um segundo da taxa; o excedente espera na proporção da taxa")
+    public void testReserveWaitsForDebt() {
+        AimdRateLimiter limiter = new AimdRateLimiter(20, 1, 1, 0.5, now::get);
+
+        assertEquals(0, limiter.reserve(20));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), limiter.reserve(10));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals(0, limiter.reserve(5));
+    }
+
+    @Test
+    @DisplayName("Throttling reduz a taxa pela metade até o mínimo; sucessos sobem aditivamente até o teto")
+    public void testAdditiveIncreaseMultiplicativeDecrease() {
+        AimdRateLimiter limiter = new AimdRateLimiter(20, 4, 3, 0.5, now::get);
+
+        limiter.onThrottle();
+        assertEquals(10, limiter.rate());
+        limiter.onThrottle();
+        limiter.onThrottle();
+        assertEquals(4, limiter.rate());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        limiter.onSuccess();
+        assertEquals(7, limiter.rate());
+        for (int i = 0; i < 10; i++) {
+            now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            limiter.onSuccess();
+        }
+        assertEquals(20, limiter.rate());
+    }
+
+    @Test
+    @DisplayName("Rajada de sucessos sobe a taxa no máximo uma vez por segundo")
+    public void testBurstOfSuccessesIsTimeBased() {
+        AimdRateLimiter limiter = new AimdRateLimiter(100, 10, 5, 0.5, now::get);
+        limiter.onThrottle();
+        assertEquals(50, limiter.rate());
+
+        for (int i = 0; i < 1000; i++) {
+            limiter.onSuccess();
+        }
+        assertEquals(50, limiter.rate());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        limiter.onSuccess();
+        assertEquals(50, limiter.rate());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        for (int i = 0; i < 1000; i++) {
+            limiter.onSuccess();
+        }
+        assertEquals(55, limiter.rate());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        limiter.onThrottle();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        limiter.onSuccess();
+        assertEquals(27.5, limiter.rate());
+    }
+
+    @Test
+    @DisplayName("Espera acima do limite desiste sem consumir; o débito cobrado atrasa o próximo pedido")
+    public void testTryReserveBoundsWait() {
+        AimdRateLimiter limiter = new AimdRateLimiter(10, 1, 1, 0.5, now::get);
+        long maxWait = TimeUnit.MILLISECONDS.toNanos(200);
+
+        assertEquals(0, limiter.tryReserve(10, maxWait));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.tryReserve(1, maxWait));
+        assertEquals(-1, limiter.tryReserve(5, maxWait));
+
+        limiter.charge(4);
+        assertEquals(-1, limiter.tryReserve(1, maxWait));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), limiter.tryReserve(1, maxWait));
+    }
+}
@@ -0,0 +1,61 @@
+package com.nttdata.user.api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(0);
+    private SimpleMeterRegistry meterRegistry;
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new LoginRateLimiter(meterRegistry, true, 3, Duration.ofSeconds(30), 10, Duration.ofSeconds(10),
+            1000, Duration.ofMinutes(10), clock::get);
+    }
+
+    @Test
+    @DisplayName("Rajada até a capacidade da conta e depois espera pelo próximo token")
+    public void testAccountBurstThenRetryAfter() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("john@example.com", "10.0.0." + i).isEmpty());
+        }
+        Optional<Duration> retryAfter = limiter.tryAcquire("John@Example.com ", "10.0.0.9");
+        assertEquals(Optional.of(Duration.ofSeconds(10)), retryAfter);
+        assertEquals(1.0, meterRegistry.get("user.login.throttled").tag("scope", "account").counter().count());
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertTrue(limiter.tryAcquire("john@example.com", "10.0.0.9").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Mesmo IP tentando contas diferentes é limitado pelo bucket do IP")
+    public void testIpBucket() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("user" + i + "@example.com", "203.0.113.7").isEmpty());
+        }
+        assertTrue(limiter.tryAcquire("other@example.com", "203.0.113.7").isPresent());
+        assertTrue(limiter.tryAcquire("other@example.com", "203.0.113.8").isEmpty());
+        assertEquals(1.0, meterRegistry.get("user.login.throttled").tag("scope", "ip").counter().count());
+    }
+
+    @Test
+    @DisplayName("Limitador desligado aceita tudo")
+    public void testDisabled() {
+        LoginRateLimiter disabled = new LoginRateLimiter(new SimpleMeterRegistry(), false, 1, Duration.ofMinutes(1),
+            1, Duration.ofMinutes(1), 1000, Duration.ofMinutes(10), clock::get);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(disabled.tryAcquire("john@example.com", "203.0.113.7").isEmpty());
+        }
+    }
+}
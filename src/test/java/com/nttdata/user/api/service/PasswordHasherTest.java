@@ -0,0 +1,55 @@
+package com.nttdata.user.api.service;
+
+import com.nttdata.user.api.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    public void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Tarefa ainda na fila quando o tempo esgota sai da fila e não calcula o hash")
+    public void testTimedOutQueuedTaskIsNotExecuted() throws Exception {
+        CountDownLatch busy = new CountDownLatch(1);
+        BCryptPasswordEncoder encoder = mock(BCryptPasswordEncoder.class);
+        when(encoder.encode(any())).thenAnswer(invocation -> {
+            if ("lenta".contentEquals((CharSequence) invocation.getArgument(0))) {
+                busy.await();
+            }
+            return "hash";
+        });
+        hasher = new PasswordHasher(encoder, meterRegistry, 1, 4, 50);
+
+        CompletableFuture<String> slow = hasher.encodeAsync("lenta");
+        assertThrows(PasswordHashingRejectedException.class, () -> hasher.encode("abandonada"));
+        assertEquals(0, meterRegistry.get("password.hashing.queue.depth").gauge().value());
+
+        busy.countDown();
+        assertEquals("hash", slow.get(1, TimeUnit.SECONDS));
+        assertEquals("hash", hasher.encodeAsync("seguinte").get(1, TimeUnit.SECONDS));
+        verify(encoder, never()).encode("abandonada");
+        verify(encoder, times(1)).encode("seguinte");
+    }
+}
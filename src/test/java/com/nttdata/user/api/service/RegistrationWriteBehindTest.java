@@ -0,0 +1,224 @@
+package com.nttdata.user.api.service;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.user.api.data.dto.UserRegistrationStatus;
+import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.data.entity.UserEntityType;
+import com.nttdata.user.api.exception.RegistrationQueueFullException;
+import com.nttdata.user.api.loadtest.InMemoryAmazonDynamoDB;
+import com.nttdata.user.api.repository.UserBatchRepository;
+import com.nttdata.user.api.repository.UserRegistrationRepository;
+import com.nttdata.user.api.repository.UserScanRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+public class RegistrationWriteBehindTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private InMemoryAmazonDynamoDB amazonDynamoDB;
+    private Path journalPath;
+    private UserBatchRepository userBatchRepository;
+    private RegistrationWriteBehind writeBehind;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        amazonDynamoDB = new InMemoryAmazonDynamoDB();
+        journalPath = Files.createTempDirectory("registration").resolve("registration.journal");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (writeBehind != null) {
+            writeBehind.shutdown();
+        }
+        if (userBatchRepository != null) {
+            userBatchRepository.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Cadastros aceitos são gravados em lote e o journal é esvaziado")
+    public void testSubmit_CommitsAndCompactsJournal() throws Exception {
+        writeBehind = start(100);
+        for (int i = 0; i < 20; i++) {
+            UserEntity user = user(i);
+            assertTrue(writeBehind.reserve(user.getCpf(), user.getEmail()));
+            writeBehind.submit(user);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(UserRegistrationStatus.CREATED, await("user-" + i));
+            assertNotNull(item("user-" + i));
+        }
+        assertTrue(writeBehind.reserve(user(0).getCpf(), user(0).getEmail()));
+        awaitEmptyJournal();
+    }
+
+    @Test
+    @DisplayName("CPF reservado por outro cadastro depois do 202 termina como falha, sem gravar o usuário")
+    public void testSubmit_ConditionalWriteRejectsDuplicate() throws Exception {
+        writeBehind = start(100);
+        writeBehind.submit(user(1));
+        assertEquals(UserRegistrationStatus.CREATED, await("user-1"));
+
+        UserEntity duplicate = new UserEntity("user-2", "Outro", user(1).getCpf(), "outro@example.com",
+            "hash-2", UserEntityType.CLIENTE);
+        writeBehind.submit(duplicate);
+
+        assertEquals(UserRegistrationStatus.FAILED, await("user-2"));
+        assertNull(item("user-2"));
+    }
+
+    @Test
+    @DisplayName("Na partida, cadastros do journal sem marca de conclusão são regravados")
+    public void testStart_ReplaysPendingRegistrations() throws Exception {
+        try (RegistrationJournal journal = new RegistrationJournal(journalPath, objectMapper)) {
+            journal.accepted(user(1));
+            journal.accepted(user(2));
+            journal.sync(journal.done("user-1"));
+        }
+
+        writeBehind = start(100);
+
+        assertEquals(UserRegistrationStatus.CREATED, await("user-2"));
+        assertNotNull(item("user-2"));
+        assertTrue(writeBehind.status("user-1").isEmpty());
+        assertNull(item("user-1"));
+    }
+
+    @Test
+    @DisplayName("Journal maior que a fila: sem vagas até o excedente ser gravado, depois a capacidade volta ao normal")
+    public void testStart_ReplayAboveCapacity() throws Exception {
+        try (RegistrationJournal journal = new RegistrationJournal(journalPath, objectMapper)) {
+            for (int i = 1; i <= 3; i++) {
+                journal.accepted(user(i));
+            }
+            journal.sync(journal.position());
+        }
+
+        writeBehind = start(1);
+
+        for (int i = 1; i <= 3; i++) {
+            assertEquals(UserRegistrationStatus.CREATED, await("user-" + i));
+        }
+        awaitEmptyJournal();
+        writeBehind.submit(user(4));
+        assertEquals(UserRegistrationStatus.CREATED, await("user-4"));
+    }
+
+    @Test
+    @DisplayName("CPF ou e-mail já reservado é recusado até ser liberado")
+    public void testReserve_RejectsPendingDuplicates() throws IOException {
+        writeBehind = start(100);
+
+        assertTrue(writeBehind.reserve("596.324.180-42", "john@example.com"));
+        assertFalse(writeBehind.reserve("59632418042", "outro@example.com"));
+        assertFalse(writeBehind.reserve("11144477735", "John@Example.com"));
+        assertTrue(writeBehind.reserve("11144477735", "outro@example.com"));
+
+        writeBehind.release("596.324.180-42", "john@example.com");
+        assertTrue(writeBehind.reserve("59632418042", "john@example.com"));
+    }
+
+    @Test
+    @DisplayName("Com a fila cheia o cadastro é recusado")
+    public void testSubmit_QueueFull() throws IOException {
+        writeBehind = start(0);
+
+        assertThrows(RegistrationQueueFullException.class, () -> writeBehind.submit(user(1)));
+        assertTrue(writeBehind.status("user-1").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Erro inesperado depois da gravação não mata a thread: o lote volta para a fila")
+    public void testCommitter_SurvivesUnexpectedError() throws Exception {
+        RegisteredUserFilter registeredUserFilter = mock(RegisteredUserFilter.class);
+        doThrow(new IllegalStateException("filtro indisponível")).doNothing()
+            .when(registeredUserFilter).put(anyString(), anyString());
+        writeBehind = start(100, registeredUserFilter);
+        RegistrationWriteBehindHealthIndicator healthIndicator = new RegistrationWriteBehindHealthIndicator(writeBehind);
+
+        writeBehind.submit(user(1));
+        assertEquals(UserRegistrationStatus.CREATED, await("user-1"));
+        writeBehind.submit(user(2));
+        assertEquals(UserRegistrationStatus.CREATED, await("user-2"));
+
+        assertNotNull(item("user-1"));
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        awaitEmptyJournal();
+    }
+
+    @Test
+    @DisplayName("Sem a thread de gravação a saúde do write-behind é DOWN")
+    public void testHealth_DownWhenCommitterStopped() throws Exception {
+        writeBehind = start(100);
+        RegistrationWriteBehindHealthIndicator healthIndicator = new RegistrationWriteBehindHealthIndicator(writeBehind);
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+
+        writeBehind.shutdown();
+        writeBehind = null;
+
+        assertEquals(Status.DOWN, healthIndicator.health().getStatus());
+    }
+
+    private RegistrationWriteBehind start(int queueCapacity) throws IOException {
+        return start(queueCapacity, new RegisteredUserFilter(new UserScanRepository(amazonDynamoDB),
+            new SimpleMeterRegistry(), false, 1000, 0.01, 1));
+    }
+
+    private RegistrationWriteBehind start(int queueCapacity, RegisteredUserFilter registeredUserFilter) throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        userBatchRepository = new UserBatchRepository(
+            new UserRegistrationRepository(amazonDynamoDB, DynamoDBMapperConfig.DEFAULT), 3, 1);
+        RegistrationWriteBehind started = new RegistrationWriteBehind(userBatchRepository, registeredUserFilter, objectMapper,
+            meterRegistry, true, journalPath, queueCapacity, Duration.ofMillis(10), 5,
+            new AimdRateLimiter(10_000, 100, 100, 0.5), Duration.ofMinutes(1));
+        started.start();
+        return started;
+    }
+
+    private UserRegistrationStatus await(String id) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            UserRegistrationStatus status = writeBehind.status(id).orElse(null);
+            if (status != null && status != UserRegistrationStatus.PENDING) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        return UserRegistrationStatus.PENDING;
+    }
+
+    private void awaitEmptyJournal() throws Exception {
+        for (int i = 0; i < 500 && Files.size(journalPath) > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, Files.size(journalPath));
+    }
+
+    private Map<String, AttributeValue> item(String id) {
+        return amazonDynamoDB.getItem(new GetItemRequest("User", Map.of("id", new AttributeValue(id)))).getItem();
+    }
+
+    private static UserEntity user(int i) {
+        return new UserEntity("user-" + i, "Usuário " + i, String.format("%011d", i), "u" + i + "@example.com",
+            "hash-" + i, UserEntityType.CLIENTE);
+    }
+}
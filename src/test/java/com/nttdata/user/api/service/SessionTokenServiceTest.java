@@ -0,0 +1,156 @@
+package com.nttdata.user.api.service;
+
+import com.nttdata.user.api.loadtest.InMemoryAmazonDynamoDB;
+import com.nttdata.user.api.repository.SessionRevocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionTokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private MutableClock clock;
+    private SessionRevocationRepository sessionRevocationRepository;
+    private SessionTokenService sessionTokenService;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        sessionRevocationRepository = new SessionRevocationRepository(new InMemoryAmazonDynamoDB());
+        sessionTokenService = instance(1000);
+    }
+
+    @Test
+    @DisplayName("Token de acesso válido identifica o usuário até expirar")
+    public void testVerifyAccess() {
+        SessionTokens tokens = sessionTokenService.issue("user-1");
+
+        assertEquals(Optional.of("user-1"), sessionTokenService.verifyAccess(tokens.accessToken()));
+        assertTrue(sessionTokenService.verifyAccess(tokens.refreshToken()).isEmpty());
+
+        clock.advance(Duration.ofMinutes(15));
+        assertTrue(sessionTokenService.verifyAccess(tokens.accessToken()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Assinatura alterada ou de outra chave é rejeitada")
+    public void testTamperedToken() {
+        String token = sessionTokenService.issue("user-1").accessToken();
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString("A:admin:9999999999:x".getBytes())
+            + token.substring(token.indexOf('.'));
+        SessionTokenService otherKey = new SessionTokenService(sessionRevocationRepository,
+            Base64.getEncoder().encodeToString(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16,
+                17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32}),
+            Duration.ofMinutes(15), Duration.ofDays(7), 1000, clock);
+
+        assertTrue(sessionTokenService.verifyAccess(forged).isEmpty());
+        assertTrue(sessionTokenService.verifyAccess("lixo").isEmpty());
+        assertTrue(otherKey.verifyAccess(token).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Renovação troca o par e invalida o token de renovação usado")
+    public void testRefreshRotates() {
+        SessionTokens tokens = sessionTokenService.issue("user-1");
+
+        Optional<SessionTokens> refreshed = sessionTokenService.refresh(tokens.refreshToken());
+
+        assertTrue(refreshed.isPresent());
+        assertEquals(Optional.of("user-1"), sessionTokenService.verifyAccess(refreshed.get().accessToken()));
+        assertTrue(sessionTokenService.refresh(tokens.refreshToken()).isEmpty());
+        assertTrue(sessionTokenService.refresh(tokens.accessToken()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Papel de administrador vai no token e é mantido na renovação")
+    public void testAdminClaim() {
+        SessionTokens admin = sessionTokenService.issue(new SessionPrincipal("admin-1", true));
+        SessionTokens regular = sessionTokenService.issue("user-1");
+
+        assertEquals(Optional.of(new SessionPrincipal("admin-1", true)), sessionTokenService.verifyPrincipal(admin.accessToken()));
+        assertEquals(Optional.of(new SessionPrincipal("user-1", false)), sessionTokenService.verifyPrincipal(regular.accessToken()));
+        SessionTokens refreshed = sessionTokenService.refresh(admin.refreshToken()).orElseThrow();
+        assertEquals(Optional.of(new SessionPrincipal("admin-1", true)), sessionTokenService.verifyPrincipal(refreshed.accessToken()));
+    }
+
+    @Test
+    @DisplayName("Token revogado deixa de ser aceito")
+    public void testRevoke() {
+        SessionTokens tokens = sessionTokenService.issue("user-1");
+
+        sessionTokenService.revoke(tokens.accessToken());
+
+        assertTrue(sessionTokenService.verifyAccess(tokens.accessToken()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Token de renovação usado ou revogado numa instância é recusado nas outras")
+    public void testRefreshRevocationIsShared() {
+        SessionTokenService other = instance(1000);
+        SessionTokens tokens = sessionTokenService.issue("user-1");
+
+        SessionTokens refreshed = sessionTokenService.refresh(tokens.refreshToken()).orElseThrow();
+        assertTrue(other.refresh(tokens.refreshToken()).isEmpty());
+
+        sessionTokenService.revoke(refreshed.refreshToken());
+        assertTrue(other.refresh(refreshed.refreshToken()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Token de renovação revogado continua recusado depois de sair do cache local")
+    public void testRefreshRevocationSurvivesEviction() {
+        SessionTokenService small = instance(1);
+        SessionTokens revokedTokens = small.issue("user-1");
+        small.revoke(revokedTokens.refreshToken());
+
+        for (int i = 0; i < 100; i++) {
+            small.revoke(small.issue("user-" + i).accessToken());
+        }
+
+        assertTrue(small.refresh(revokedTokens.refreshToken()).isEmpty());
+    }
+
+    private SessionTokenService instance(long revocationMaximumSize) {
+        return new SessionTokenService(sessionRevocationRepository, SECRET, Duration.ofMinutes(15), Duration.ofDays(7),
+            revocationMaximumSize, clock);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
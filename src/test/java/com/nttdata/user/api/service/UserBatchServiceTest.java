@@ -0,0 +1,197 @@
+package com.nttdata.user.api.service;
+
+import com.nttdata.user.api.data.dto.UserBatchResultDto;
+import com.nttdata.user.api.data.dto.UserBatchStatus;
+import com.nttdata.user.api.data.dto.UserDto;
+import com.nttdata.user.api.data.dto.UserDtoType;
+import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.data.mapper.UserMapper;
+import com.nttdata.user.api.exception.UserAlreadyExistsException;
+import com.nttdata.user.api.fixture.Cpfs;
+import com.nttdata.user.api.repository.UserBatchRepository;
+import com.nttdata.user.api.repository.UserChunkResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class UserBatchServiceTest {
+
+    private static final UserChunkResult WRITTEN = new UserChunkResult(Map.of(), Set.of());
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private UserBatchRepository userBatchRepository;
+
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private RegisteredUserFilter registeredUserFilter;
+
+    @Mock
+    private UserMetrics userMetrics;
+
+    private UserBatchServiceImpl userBatchService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userBatchService = new UserBatchServiceImpl(userService, userBatchRepository, new UserMapper(),
+            passwordHasher, registeredUserFilter, userMetrics, 2, 50000);
+        when(passwordHasher.encodeAsync(any())).thenReturn(CompletableFuture.completedFuture("encodedPassword"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userBatchService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Lote com itens válidos, inválidos e duplicados")
+    public void testRegisterUsers_MixedBatch() {
+        List<UserDto> users = List.of(
+            new UserDto(null, "John", "59632418042", "john@example.com", "password", UserDtoType.CLIENTE),
+            new UserDto(null, "Ana", "12345678900", "ana@example.com", "password", UserDtoType.CLIENTE),
+            new UserDto(null, "Outro John", "596.324.180-42", "john2@example.com", "password", UserDtoType.CLIENTE),
+            new UserDto(null, "Maria", "52998224725", "maria@example.com", "password", UserDtoType.FORNECEDOR));
+        when(userService.existsByCpf("59632418042")).thenReturn(false);
+        when(userService.existsByCpf("52998224725")).thenReturn(true);
+        when(userBatchRepository.saveChunk(anyList())).thenReturn(WRITTEN);
+
+        List<UserBatchResultDto> results = userBatchService.registerUsers(users.iterator());
+
+        assertEquals(4, results.size());
+        assertEquals(UserBatchStatus.CREATED, results.get(0).getStatus());
+        assertNotNull(results.get(0).getId());
+        assertEquals(UserBatchStatus.INVALID_CPF, results.get(1).getStatus());
+        assertEquals(UserBatchStatus.DUPLICATE, results.get(2).getStatus());
+        assertEquals(UserBatchStatus.DUPLICATE, results.get(3).getStatus());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        verify(userBatchRepository, times(1)).saveChunk(anyList());
+        verify(registeredUserFilter, times(1)).put("59632418042", "john@example.com");
+        verify(userMetrics, times(1)).invalidCpf();
+        verify(userMetrics, times(2)).duplicateCpf();
+    }
+
+    @Test
+    @DisplayName("E-mail repetido no lote ou já cadastrado é reportado como duplicado")
+    public void testRegisterUsers_DuplicateEmail() {
+        List<UserDto> users = List.of(
+            new UserDto(null, "John", "59632418042", "john@example.com", "password", UserDtoType.CLIENTE),
+            new UserDto(null, "Outro John", "52998224725", " John@Example.com", "password", UserDtoType.CLIENTE),
+            new UserDto(null, "Maria", Cpfs.valid(123456789), "maria@example.com", "password", UserDtoType.CLIENTE));
+        when(userService.existsByCpf(anyString())).thenReturn(false);
+        when(userService.existsByEmail("john@example.com")).thenReturn(false);
+        when(userService.existsByEmail("maria@example.com")).thenReturn(true);
+        when(userBatchRepository.saveChunk(anyList())).thenReturn(WRITTEN);
+
+        List<UserBatchResultDto> results = userBatchService.registerUsers(users.iterator());
+
+        assertEquals(UserBatchStatus.CREATED, results.get(0).getStatus());
+        assertEquals(UserBatchStatus.DUPLICATE, results.get(1).getStatus());
+        assertEquals("E-mail repetido no lote", results.get(1).getMessage());
+        assertEquals(UserBatchStatus.DUPLICATE, results.get(2).getStatus());
+        assertEquals("E-mail já cadastrado", results.get(2).getMessage());
+        verify(userBatchRepository, times(1)).saveChunk(argThat(chunk -> chunk.size() == 1));
+        verify(userMetrics, times(2)).duplicateEmail();
+    }
+
+    @Test
+    @DisplayName("Usuários não gravados depois das novas tentativas são reportados como falha")
+    public void testRegisterUsers_FailedWrites() {
+        UserDto user = new UserDto(null, "John", "59632418042", "john@example.com", "password", UserDtoType.CLIENTE);
+        when(userService.existsByCpf(anyString())).thenReturn(false);
+        when(userBatchRepository.saveChunk(anyList())).thenAnswer(invocation -> {
+            List<UserEntity> entities = invocation.getArgument(0);
+            return new UserChunkResult(Map.of(), Set.of(entities.get(0).getId()));
+        });
+
+        List<UserBatchResultDto> results = userBatchService.registerUsers(List.of(user).iterator());
+
+        assertEquals(UserBatchStatus.FAILED, results.get(0).getStatus());
+        verify(registeredUserFilter, never()).put(any(), any());
+    }
+
+    @Test
+    @DisplayName("CPF reservado por outro cadastro entre a verificação e a gravação é reportado como duplicado")
+    public void testRegisterUsers_DuplicateOnConditionalWrite() {
+        UserDto user = new UserDto(null, "John", "59632418042", "john@example.com", "password", UserDtoType.CLIENTE);
+        when(userService.existsByCpf(anyString())).thenReturn(false);
+        when(userBatchRepository.saveChunk(anyList())).thenAnswer(invocation -> {
+            List<UserEntity> entities = invocation.getArgument(0);
+            return new UserChunkResult(Map.of(entities.get(0).getId(), UserAlreadyExistsException.CPF), Set.of());
+        });
+
+        List<UserBatchResultDto> results = userBatchService.registerUsers(List.of(user).iterator());
+
+        assertEquals(UserBatchStatus.DUPLICATE, results.get(0).getStatus());
+        assertEquals("CPF já cadastrado", results.get(0).getMessage());
+        assertNull(results.get(0).getId());
+        verify(userMetrics, times(1)).duplicateCpf();
+        verify(registeredUserFilter, never()).put(any(), any());
+    }
+
+    @Test
+    @DisplayName("Escritas agrupadas em blocos de 8 usuários")
+    public void testRegisterUsers_ChunksOfBatchWriteLimit() {
+        List<UserDto> users = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            String cpf = Cpfs.valid(100000000 + i * 7919);
+            users.add(new UserDto(null, "U" + i, cpf, "u" + i + "@example.com", "password", UserDtoType.CLIENTE));
+        }
+        when(userService.existsByCpf(anyString())).thenReturn(false);
+        when(userBatchRepository.saveChunk(anyList())).thenReturn(WRITTEN);
+
+        List<UserBatchResultDto> results = userBatchService.registerUsers(users.iterator());
+
+        assertEquals(30, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == UserBatchStatus.CREATED));
+        verify(userBatchRepository, times(3)).saveChunk(argThat(chunk -> chunk.size() == UserBatchRepository.MAX_USERS_PER_CHUNK));
+        verify(userBatchRepository, times(1)).saveChunk(argThat(chunk -> chunk.size() == 6));
+    }
+
+    @Test
+    @DisplayName("Acima do limite do lote a leitura para e um único resultado resume o excedente")
+    public void testRegisterUsers_StopsReadingAtMaxItems() {
+        userBatchService.shutdown();
+        userBatchService = new UserBatchServiceImpl(userService, userBatchRepository, new UserMapper(),
+            passwordHasher, registeredUserFilter, userMetrics, 2, 3);
+        List<UserDto> users = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            users.add(new UserDto(null, "U" + i, Cpfs.valid(100000000 + i * 7919), "u" + i + "@example.com",
+                "password", UserDtoType.CLIENTE));
+        }
+        when(userService.existsByCpf(anyString())).thenReturn(false);
+        when(userBatchRepository.saveChunk(anyList())).thenReturn(WRITTEN);
+        Iterator<UserDto> input = users.iterator();
+
+        List<UserBatchResultDto> results = userBatchService.registerUsers(input);
+
+        assertEquals(4, results.size());
+        assertTrue(results.subList(0, 3).stream().allMatch(result -> result.getStatus() == UserBatchStatus.CREATED));
+        assertEquals(UserBatchStatus.FAILED, results.get(3).getStatus());
+        assertEquals(3, results.get(3).getIndex());
+        assertEquals("U3", input.next().getNome());
+        verify(passwordHasher, times(3)).encodeAsync(any());
+    }
+}
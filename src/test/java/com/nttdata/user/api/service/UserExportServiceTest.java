@@ -0,0 +1,125 @@
+package com.nttdata.user.api.service;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.user.api.data.dto.UserExportFormat;
+import com.nttdata.user.api.loadtest.InMemoryAmazonDynamoDB;
+import com.nttdata.user.api.repository.UserKeys;
+import com.nttdata.user.api.repository.UserScanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserExportServiceTest {
+
+    private static final int USERS = 25;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private UserExportService userExportService;
+
+    @BeforeEach
+    public void setUp() {
+        InMemoryAmazonDynamoDB amazonDynamoDB = new InMemoryAmazonDynamoDB();
+        for (int i = 0; i < USERS; i++) {
+            amazonDynamoDB.putItem(new PutItemRequest("User", Map.of(
+                "id", new AttributeValue("user-" + i),
+                "nome", new AttributeValue("Usuário, " + i),
+                "cpf", new AttributeValue(String.format("%011d", i)),
+                "email", new AttributeValue("u" + i + "@example.com"),
+                "senha", new AttributeValue("hash-" + i),
+                "tipoUsuario", new AttributeValue("CLIENTE"))));
+            amazonDynamoDB.putItem(new PutItemRequest("User", Map.of(
+                "id", new AttributeValue(UserKeys.cpfGuardId(String.format("%011d", i))),
+                UserKeys.GUARD_OWNER_ATTRIBUTE, new AttributeValue("user-" + i))));
+        }
+        userExportService = new UserExportService(new UserScanRepository(amazonDynamoDB), objectMapper, 1, 8, 4, 2);
+    }
+
+    @Test
+    @DisplayName("Exportação NDJSON traz todos os usuários, sem senha nem itens de unicidade")
+    public void testExportNdjson() throws IOException {
+        List<JsonNode> lines = ndjson(export(UserExportFormat.NDJSON, 3, null, 0));
+
+        Set<String> ids = new HashSet<>();
+        for (JsonNode line : lines.subList(0, lines.size() - 1)) {
+            if (line.has("id")) {
+                assertFalse(line.has("senha"));
+                assertTrue(ids.add(line.get("id").asText()));
+            }
+        }
+        assertEquals(USERS, ids.size());
+        assertTrue(lines.get(lines.size() - 1).get("cursor").isNull());
+    }
+
+    @Test
+    @DisplayName("Exportação limitada retoma pelo cursor sem repetir nem perder usuários")
+    public void testExportResumesFromCursor() throws IOException {
+        Set<String> ids = new HashSet<>();
+        String cursor = null;
+        int requests = 0;
+        do {
+            List<JsonNode> lines = ndjson(export(UserExportFormat.NDJSON, 3, cursor, 5));
+            for (JsonNode line : lines) {
+                if (line.has("id")) {
+                    assertTrue(ids.add(line.get("id").asText()));
+                }
+            }
+            JsonNode last = lines.get(lines.size() - 1);
+            cursor = last.get("cursor").isNull() ? null : last.get("cursor").asText();
+            requests++;
+        } while (cursor != null && requests < 20);
+
+        assertNull(cursor);
+        assertTrue(requests > 1);
+        assertEquals(USERS, ids.size());
+    }
+
+    @Test
+    @DisplayName("CSV com cabeçalho, campos escapados e checkpoint final")
+    public void testExportCsv() throws IOException {
+        String[] lines = export(UserExportFormat.CSV, 1, null, 0).split("\n");
+
+        assertEquals("id,nome,cpf,email,tipoUsuario", lines[0]);
+        String firstUser = Arrays.stream(lines).filter(line -> line.startsWith("user-")).findFirst().orElseThrow();
+        assertTrue(firstUser.matches("user-\\d+,\"Usuário, \\d+\",\\d{11},u\\d+@example.com,CLIENTE"));
+        assertEquals("#cursor,", lines[lines.length - 1]);
+        assertFalse(String.join("\n", lines).contains("hash-"));
+    }
+
+    @Test
+    @DisplayName("Cursor ou número de segmentos inválidos são rejeitados antes de escrever")
+    public void testInvalidArguments() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThrows(IllegalArgumentException.class, () -> userExportService.export(UserExportFormat.NDJSON, 1, "lixo", 0, out));
+        assertThrows(IllegalArgumentException.class, () -> userExportService.export(UserExportFormat.NDJSON, 9, null, 0, out));
+        assertEquals(0, out.size());
+    }
+
+    private String export(UserExportFormat format, int segments, String cursor, long limit) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        userExportService.export(format, segments, cursor, limit, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private List<JsonNode> ndjson(String body) throws IOException {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
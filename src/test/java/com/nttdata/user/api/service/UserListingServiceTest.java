@@ -0,0 +1,144 @@
+package com.nttdata.user.api.service;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.nttdata.user.api.data.dto.UserDtoType;
+import com.nttdata.user.api.data.dto.UserPageDto;
+import com.nttdata.user.api.data.dto.UserPublicDto;
+import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.data.entity.UserEntityType;
+import com.nttdata.user.api.data.mapper.UserMapper;
+import com.nttdata.user.api.loadtest.InMemoryAmazonDynamoDB;
+import com.nttdata.user.api.repository.UserCacheNames;
+import com.nttdata.user.api.repository.UserKeys;
+import com.nttdata.user.api.repository.UserListingRepository;
+import com.nttdata.user.api.repository.UserRegistrationRepository;
+import com.nttdata.user.api.repository.UserScanRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserListingServiceTest {
+
+    private static final int FORNECEDORES = 47;
+
+    private InMemoryAmazonDynamoDB amazonDynamoDB;
+    private UserListingRepository userListingRepository;
+    private UserListingService userListingService;
+    private ConcurrentMapCacheManager cacheManager;
+
+    @BeforeEach
+    public void setUp() {
+        amazonDynamoDB = new InMemoryAmazonDynamoDB();
+        UserRegistrationRepository registration = new UserRegistrationRepository(amazonDynamoDB, DynamoDBMapperConfig.DEFAULT);
+        for (int i = 0; i < FORNECEDORES + 10; i++) {
+            UserEntityType tipo = i < FORNECEDORES ? UserEntityType.FORNECEDOR : UserEntityType.CLIENTE;
+            registration.create(new UserEntity(null, "Usuário " + i, String.format("%011d", i),
+                "u" + i + "@example.com", "hash-" + i, tipo));
+        }
+        userListingRepository = new UserListingRepository(amazonDynamoDB, DynamoDBMapperConfig.DEFAULT, 4);
+        cacheManager = new ConcurrentMapCacheManager();
+        userListingService = new UserListingService(userListingRepository, new UserMapper(), cacheManager, 20, 10);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userListingRepository.shutdown();
+    }
+
+    @Test
+    @DisplayName("Páginas pelo cursor trazem todos os fornecedores em ordem de id, sem repetir")
+    public void testListByTipo_PagesThroughAllUsers() {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            UserPageDto page = userListingService.listByTipo(UserDtoType.FORNECEDOR, 7, cursor);
+            assertTrue(page.getItems().size() <= 7);
+            for (UserPublicDto user : page.getItems()) {
+                assertEquals(UserDtoType.FORNECEDOR, user.getTipoUsuario());
+                ids.add(user.getId());
+            }
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null && pages < 50);
+
+        assertNull(cursor);
+        assertEquals(FORNECEDORES, ids.size());
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertEquals(FORNECEDORES, ids.stream().distinct().count());
+    }
+
+    @Test
+    @DisplayName("Tamanho de página acima do máximo é reduzido ao máximo")
+    public void testListByTipo_CapsPageSize() {
+        UserPageDto page = userListingService.listByTipo(UserDtoType.FORNECEDOR, 1000, null);
+
+        assertEquals(10, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Cursor de outro tipo ou malformado é rejeitado")
+    public void testListByTipo_InvalidCursor() {
+        String cursor = userListingService.listByTipo(UserDtoType.CLIENTE, 2, null).getNextCursor();
+
+        assertNotNull(cursor);
+        assertThrows(IllegalArgumentException.class, () -> userListingService.listByTipo(UserDtoType.FORNECEDOR, 2, cursor));
+        assertThrows(IllegalArgumentException.class, () -> userListingService.listByTipo(UserDtoType.FORNECEDOR, 2, "%%%"));
+    }
+
+    @Test
+    @DisplayName("Backfill grava o tipoShard dos usuários antigos, que passam a ser listados; rodar de novo não muda nada")
+    public void testBackfill_ListsLegacyUsers() {
+        amazonDynamoDB.putItem(new PutItemRequest("User", Map.of(
+            "id", new AttributeValue("legacy-1"),
+            "nome", new AttributeValue("Antigo"),
+            "cpf", new AttributeValue("52998224725"),
+            "tipoUsuario", new AttributeValue("ADMIN"))));
+        amazonDynamoDB.putItem(new PutItemRequest("User", Map.of(
+            "id", new AttributeValue(UserKeys.cpfGuardId("52998224725")),
+            UserKeys.GUARD_OWNER_ATTRIBUTE, new AttributeValue("legacy-1"))));
+        assertTrue(userListingService.listByTipo(UserDtoType.ADMIN, 10, null).getItems().isEmpty());
+
+        TipoShardBackfill backfill = new TipoShardBackfill(new UserScanRepository(amazonDynamoDB), userListingRepository, true, 2);
+
+        assertEquals(1, backfill.run());
+        List<UserPublicDto> admins = userListingService.listByTipo(UserDtoType.ADMIN, 10, null).getItems();
+        assertEquals(List.of("legacy-1"), admins.stream().map(UserPublicDto::getId).toList());
+        assertEquals(0, backfill.run());
+    }
+
+    @Test
+    @DisplayName("Promoção a administrador move o usuário de shard e invalida as credenciais em cache")
+    public void testChangeTipo_PromotesToAdmin() {
+        UserPublicDto cliente = userListingService.listByTipo(UserDtoType.CLIENTE, 1, null).getItems().get(0);
+        cacheManager.getCache(UserCacheNames.CREDENTIALS_BY_EMAIL).put(cliente.getEmail(), "credenciais antigas");
+
+        UserPublicDto admin = userListingService.changeTipo(cliente.getId(), UserDtoType.ADMIN).orElseThrow();
+
+        assertEquals(UserDtoType.ADMIN, admin.getTipoUsuario());
+        assertEquals(cliente.getEmail(), admin.getEmail());
+        assertNull(cacheManager.getCache(UserCacheNames.CREDENTIALS_BY_EMAIL).get(cliente.getEmail()));
+        assertEquals(List.of(cliente.getId()),
+            userListingService.listByTipo(UserDtoType.ADMIN, 10, null).getItems().stream().map(UserPublicDto::getId).toList());
+        assertEquals(9, userListingService.listByTipo(UserDtoType.CLIENTE, 10, null).getItems().size());
+    }
+
+    @Test
+    @DisplayName("Alterar o tipo de um id que não é usuário não cria nada")
+    public void testChangeTipo_UnknownOrAuxiliaryId() {
+        assertTrue(userListingService.changeTipo("inexistente", UserDtoType.ADMIN).isEmpty());
+        assertTrue(userListingService.changeTipo(UserKeys.cpfGuardId("00000000000"), UserDtoType.ADMIN).isEmpty());
+        assertTrue(userListingService.listByTipo(UserDtoType.ADMIN, 10, null).getItems().isEmpty());
+    }
+}
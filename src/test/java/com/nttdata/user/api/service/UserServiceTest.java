@@ -2,9 +2,16 @@ package com.nttdata.user.api.service;
 
 import com.nttdata.user.api.data.dto.UserDto;
 import com.nttdata.user.api.data.entity.UserEntity;
+import com.nttdata.user.api.data.entity.UserEntityType;
 import com.nttdata.user.api.data.mapper.UserMapper;
+import com.nttdata.user.api.exception.UserAlreadyExistsException;
 import com.nttdata.user.api.exception.UserRegistrationException;
+import com.nttdata.user.api.exception.PasswordHashingRejectedException;
+import com.nttdata.user.api.repository.UserCredentials;
+import com.nttdata.user.api.repository.UserLookupRepository;
+import com.nttdata.user.api.repository.UserRegistrationRepository;
 import com.nttdata.user.api.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,6 +25,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Optional;
 
@@ -38,11 +46,23 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserRegistrationRepository userRegistrationRepository;
+
+    @Mock
+    private UserLookupRepository userLookupRepository;
+
     @Mock
     private UserMapper userMapper;
 
     @Mock
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private RegisteredUserFilter registeredUserFilter;
+
+    @Mock
+    private UserMetrics userMetrics;
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -57,18 +77,18 @@ public class UserServiceTest {
     public void testRegisterUser_Success() {
         UserDto userDto = new UserDto(null, "John", "59632418042", "john@example.com", "password", null);
         UserEntity userEntity = new UserEntity(null, "John", "59632418042", "john@example.com", "encodedPassword", null);
-        when(userRepository.existsByCpf(userDto.getCpf())).thenReturn(false);
-        when(userMapper.toEntity(userDto)).thenReturn(userEntity);
-        when(passwordEncoder.encode(userDto.getSenha())).thenReturn("encodedPassword");
-        when(userRepository.save(userEntity)).thenReturn(userEntity);
+        when(userLookupRepository.existsByCpf(userDto.getCpf())).thenReturn(false);
+        when(userMapper.toRegistrationEntity(userDto)).thenReturn(userEntity);
+        when(passwordHasher.encode(userDto.getSenha())).thenReturn("encodedPassword");
+        when(userRegistrationRepository.create(userEntity)).thenReturn(userEntity);
         when(userMapper.toDto(userEntity)).thenReturn(userDto);
         UserDto result = userService.registerUser(userDto);
         assertNotNull(result);
         assertEquals("John", result.getNome());
-        verify(userRepository, times(1)).existsByCpf(userDto.getCpf());
-        verify(userMapper, times(1)).toEntity(userDto);
-        when(passwordEncoder.encode(userDto.getSenha())).thenReturn("encodedPassword");
-        verify(userRepository, times(1)).save(userEntity);
+        verify(userLookupRepository, times(1)).existsByCpf(userDto.getCpf());
+        verify(userMapper, times(1)).toRegistrationEntity(userDto);
+        when(passwordHasher.encode(userDto.getSenha())).thenReturn("encodedPassword");
+        verify(userRegistrationRepository, times(1)).create(userEntity);
         verify(userMapper, times(1)).toDto(userEntity);
     }
 
@@ -76,59 +96,71 @@ public class UserServiceTest {
     @DisplayName("Registrar usuário com CPF duplicado")
     public void testRegisterUser_DuplicateCPF() {
         UserDto userDto = new UserDto(null, "John", "59632418042", "john@example.com", "password", null);
-        when(userRepository.existsByCpf(userDto.getCpf())).thenReturn(true);
+        when(userLookupRepository.existsByCpf(userDto.getCpf())).thenReturn(true);
         assertThrows(UserRegistrationException.class, () -> {
             userService.registerUser(userDto);
         });
-        verify(userRepository, times(1)).existsByCpf(userDto.getCpf());
-        verify(userMapper, never()).toEntity(any());
-        verify(passwordEncoder, never()).encode(any());
-        verify(userRepository, never()).save(any());
+        verify(userLookupRepository, times(1)).existsByCpf(userDto.getCpf());
+        verify(userMapper, never()).toRegistrationEntity(any());
+        verify(passwordHasher, never()).encode(any());
+        verify(userRegistrationRepository, never()).create(any());
         verify(userMapper, never()).toDto(any());
+        verify(userMetrics, times(1)).duplicateCpf();
     }
     @Test
     @DisplayName("Buscar usuário por e-mail existente com senha correta")
     public void testFindByEmail_ValidUserAndPassword() {
         UserDto loginRequest = new UserDto(null, null, null, "john@example.com", "password", null);
         UserEntity userEntity = new UserEntity(null, "John", "59632418042", "john@example.com", "encodedPassword", null);
-        when(userRepository.findByEmail(loginRequest.getEmail())).thenReturn(Optional.of(userEntity));
-        when(passwordEncoder.matches(loginRequest.getSenha(), userEntity.getSenha())).thenReturn(true);
+        when(userLookupRepository.findCredentialsByEmail(loginRequest.getEmail())).thenReturn(Optional.of(new UserCredentials("1", userEntity.getSenha())));
+        when(passwordHasher.matches(loginRequest.getSenha(), userEntity.getSenha())).thenReturn(true);
         boolean result = userService.findByEmail(loginRequest);
         assertTrue(result);
-        verify(userRepository, times(1)).findByEmail(loginRequest.getEmail());
-        verify(passwordEncoder, times(1)).matches(loginRequest.getSenha(), userEntity.getSenha());
+        verify(userLookupRepository, times(1)).findCredentialsByEmail(loginRequest.getEmail());
+        verify(passwordHasher, times(1)).matches(loginRequest.getSenha(), userEntity.getSenha());
+        verify(userMetrics, times(1)).login(true);
+    }
+
+    @Test
+    @DisplayName("Autenticar devolve o id e o papel do usuário para emissão do token")
+    public void testAuthenticate_ReturnsUserId() {
+        UserDto loginRequest = new UserDto(null, null, null, "john@example.com", "password", null);
+        when(userLookupRepository.findCredentialsByEmail(loginRequest.getEmail()))
+            .thenReturn(Optional.of(new UserCredentials("1", "encodedPassword", UserEntityType.ADMIN)));
+        when(passwordHasher.matches("password", "encodedPassword")).thenReturn(true);
+        assertEquals(Optional.of(new SessionPrincipal("1", true)), userService.authenticate(loginRequest));
+        verify(userMetrics, times(1)).login(true);
     }
 
     @Test
     @DisplayName("Buscar usuário por e-mail inexistente")
     public void testFindByEmail_NonExistingUser() {
         UserDto loginRequest = new UserDto(null, null, null, "unknown@example.com", "password", null);
-        when(userRepository.findByEmail(loginRequest.getEmail())).thenReturn(Optional.empty());
+        when(userLookupRepository.findCredentialsByEmail(loginRequest.getEmail())).thenReturn(Optional.empty());
         boolean result = userService.findByEmail(loginRequest);
         assertFalse(result);
-        verify(userRepository, times(1)).findByEmail(loginRequest.getEmail());
+        verify(userLookupRepository, times(1)).findCredentialsByEmail(loginRequest.getEmail());
     }
     @Test
     @DisplayName("Verificar existência de usuário por e-mail")
     public void testExistsByEmail() {
         String existingEmail = "john@example.com";
-        UserEntity userEntity = new UserEntity(null, "John", "59632418042", "john@example.com", "encodedPassword", null);
-        when(userRepository.findByEmail(existingEmail)).thenReturn(Optional.of(userEntity));
+        when(userLookupRepository.existsByEmail(existingEmail)).thenReturn(true);
 
         boolean result = userService.existsByEmail(existingEmail);
 
         assertTrue(result);
-        verify(userRepository, times(1)).findByEmail(existingEmail);
+        verify(userLookupRepository, times(1)).existsByEmail(existingEmail);
     }
 
     @Test
     @DisplayName("Verificar inexistência de usuário por e-mail")
     public void testNotExistsByEmail() {
         String nonExistingEmail = "unknown@example.com";
-        when(userRepository.findByEmail(nonExistingEmail)).thenReturn(Optional.empty());
+        when(userLookupRepository.existsByEmail(nonExistingEmail)).thenReturn(false);
         boolean result = userService.existsByEmail(nonExistingEmail);
         assertFalse(result);
-        verify(userRepository, times(1)).findByEmail(nonExistingEmail);
+        verify(userLookupRepository, times(1)).existsByEmail(nonExistingEmail);
     }
     @Test
     @DisplayName("Buscar usuário por e-mail e senha válidos")
@@ -137,13 +169,13 @@ public class UserServiceTest {
         String senha = "password";
         UserEntity userEntity = new UserEntity(null, "John", "59632418042", "john@example.com", "encodedPassword", null);
         when(userRepository.findByEmail(email)).thenReturn(Optional.of(userEntity));
-        when(passwordEncoder.matches(senha, userEntity.getSenha())).thenReturn(true);
+        when(passwordHasher.matches(senha, userEntity.getSenha())).thenReturn(true);
         when(userMapper.toDto(userEntity)).thenReturn(new UserDto(null, "John", "59632418042", "john@example.com", null, null));
         UserDto result = userService.findByEmailAndPassword(email, senha);
         assertNotNull(result);
         assertEquals("John", result.getNome()); // Verifica se o nome do usuário está correto
         verify(userRepository, times(1)).findByEmail(email);
-        verify(passwordEncoder, times(1)).matches(senha, userEntity.getSenha());
+        verify(passwordHasher, times(1)).matches(senha, userEntity.getSenha());
         verify(userMapper, times(1)).toDto(userEntity);
     }
 
@@ -154,11 +186,11 @@ public class UserServiceTest {
         String senha = "invalidPassword";
         UserEntity userEntity = new UserEntity(null, "John", "59632418042", "john@example.com", "encodedPassword", null);
         when(userRepository.findByEmail(email)).thenReturn(Optional.of(userEntity));
-        when(passwordEncoder.matches(senha, userEntity.getSenha())).thenReturn(false);
+        when(passwordHasher.matches(senha, userEntity.getSenha())).thenReturn(false);
         UserDto result = userService.findByEmailAndPassword(email, senha);
         assertNull(result);
         verify(userRepository, times(1)).findByEmail(email);
-        verify(passwordEncoder, times(1)).matches(senha, userEntity.getSenha());
+        verify(passwordHasher, times(1)).matches(senha, userEntity.getSenha());
         verify(userMapper, never()).toDto(any());
     }
 
@@ -171,67 +203,136 @@ public class UserServiceTest {
         UserDto result = userService.findByEmailAndPassword(email, senha);
         assertNull(result);
         verify(userRepository, times(1)).findByEmail(email);
-        verify(passwordEncoder, never()).matches(any(), any());
+        verify(passwordHasher, never()).matches(any(), any());
         verify(userMapper, never()).toDto(any());
     }
     @Test
     @DisplayName("Registrar usuário com CPF inválido")
     public void testRegisterUser_InvalidCPF() {
         UserDto userDto = new UserDto(null, "John", "12345678900", "john@example.com", "password", null);
-        when(passwordEncoder.encode(any())).thenReturn("encodedPassword");
+        when(passwordHasher.encode(any())).thenReturn("encodedPassword");
         UserRegistrationException exception = assertThrows(UserRegistrationException.class, () -> {
             userService.registerUser(userDto);
         });
         assertEquals("Erro ao registrar usuário: CPF inválido", exception.getMessage());
-        verify(userRepository, never()).existsByCpf(any());
-        verify(passwordEncoder, never()).encode(any());
-        verify(userRepository, never()).save(any());
+        verify(userMetrics, times(1)).invalidCpf();
+        verify(userLookupRepository, never()).existsByCpf(any());
+        verify(passwordHasher, never()).encode(any());
+        verify(userRegistrationRepository, never()).create(any());
     }
     @Test
     @DisplayName("Verificar tratamento de exceção ao verificar CPF")
     public void testExistsByCpf_ExceptionHandling() {
         String cpfWithError = "98765432100";
-        when(userRepository.existsByCpf(cpfWithError)).thenThrow(new RuntimeException("Erro ao verificar CPF"));
+        when(userLookupRepository.existsByCpf(cpfWithError)).thenThrow(new RuntimeException("Erro ao verificar CPF"));
         UserRegistrationException exception = assertThrows(UserRegistrationException.class, () -> {
             userService.existsByCpf(cpfWithError);
         });
         assertEquals("Erro ao verificar CPF: Erro ao verificar CPF", exception.getMessage());
-        verify(userRepository, times(1)).existsByCpf(cpfWithError);
+        verify(userLookupRepository, times(1)).existsByCpf(cpfWithError);
     }
     @Test
     @DisplayName("Buscar usuário por e-mail existente com senha incorreta")
     public void testFindByEmail_ValidUserAndWrongPassword() {
         UserDto loginRequest = new UserDto(null, null, null, "john@example.com", "password", null);
         UserEntity userEntity = new UserEntity(null, "John", "59632418042", "john@example.com", "encodedPassword", null);
-        when(userRepository.findByEmail(loginRequest.getEmail())).thenReturn(Optional.of(userEntity));
-        when(passwordEncoder.matches(loginRequest.getSenha(), userEntity.getSenha())).thenReturn(false);
+        when(userLookupRepository.findCredentialsByEmail(loginRequest.getEmail())).thenReturn(Optional.of(new UserCredentials("1", userEntity.getSenha())));
+        when(passwordHasher.matches(loginRequest.getSenha(), userEntity.getSenha())).thenReturn(false);
         boolean result = userService.findByEmail(loginRequest);
         assertFalse(result);
-        verify(userRepository, times(1)).findByEmail(loginRequest.getEmail());
-        verify(passwordEncoder, times(1)).matches(loginRequest.getSenha(), userEntity.getSenha());
+        verify(userLookupRepository, times(1)).findCredentialsByEmail(loginRequest.getEmail());
+        verify(passwordHasher, times(1)).matches(loginRequest.getSenha(), userEntity.getSenha());
+        verify(userMetrics, times(1)).login(false);
     }
     @Test
     @DisplayName("Tratar exceção ao buscar usuário por e-mail")
     public void testFindByEmail_ExceptionHandling() {
         UserDto loginRequest = new UserDto(null, null, null, "john@example.com", "password", null);
-        when(userRepository.findByEmail(loginRequest.getEmail())).thenThrow(new RuntimeException("Erro ao buscar usuário por e-mail"));
+        when(userLookupRepository.findCredentialsByEmail(loginRequest.getEmail())).thenThrow(new RuntimeException("Erro ao buscar usuário por e-mail"));
         UserRegistrationException exception = assertThrows(UserRegistrationException.class, () -> {
             userService.findByEmail(loginRequest);
         });
         assertEquals("Erro ao buscar usuário por e-mail: Erro ao buscar usuário por e-mail", exception.getMessage());
-        verify(userRepository, times(1)).findByEmail(loginRequest.getEmail());
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(userLookupRepository, times(1)).findCredentialsByEmail(loginRequest.getEmail());
+        verify(passwordHasher, never()).matches(anyString(), anyString());
+    }
+    @Test
+    @DisplayName("Login executa uma única verificação BCrypt e nenhum encode")
+    public void testFindByEmail_SingleBcryptVerifyPerLogin() {
+        BCryptPasswordEncoder countingEncoder = spy(new BCryptPasswordEncoder(4));
+        String storedHash = countingEncoder.encode("password");
+        clearInvocations(countingEncoder);
+        UserCredentials loadedCredentials = new UserCredentials("1", storedHash);
+        UserServiceImpl service = new UserServiceImpl();
+        ReflectionTestUtils.setField(service, "userLookupRepository", userLookupRepository);
+        PasswordHasher hasher = new PasswordHasher(countingEncoder, new SimpleMeterRegistry(), 1, 4, 5000);
+        ReflectionTestUtils.setField(service, "passwordHasher", hasher);
+        ReflectionTestUtils.setField(service, "userMetrics", userMetrics);
+        when(userLookupRepository.findCredentialsByEmail("john@example.com")).thenReturn(Optional.of(loadedCredentials));
+        boolean result = service.findByEmail(new UserDto(null, null, null, "john@example.com", "password", null));
+        assertTrue(result);
+        assertEquals(storedHash, loadedCredentials.senha());
+        verify(countingEncoder, times(1)).matches(any(), anyString());
+        verify(countingEncoder, never()).encode(any());
+        hasher.shutdown();
+    }
+    @Test
+    @DisplayName("CPF ausente no filtro dispensa a consulta no registro, que é condicional")
+    public void testRegisterUser_DefinitelyAbsentInFilter() {
+        UserDto userDto = new UserDto(null, "John", "59632418042", "john@example.com", "password", null);
+        UserEntity userEntity = new UserEntity("1", "John", "59632418042", "john@example.com", "encodedPassword", null);
+        when(registeredUserFilter.definitelyAbsentCpf(userDto.getCpf())).thenReturn(true);
+        when(registeredUserFilter.definitelyAbsentEmail(userDto.getEmail())).thenReturn(true);
+        when(passwordHasher.encode("password")).thenReturn("encodedPassword");
+        when(userMapper.toRegistrationEntity(userDto)).thenReturn(userEntity);
+        when(userRegistrationRepository.create(userEntity)).thenReturn(userEntity);
+        userService.registerUser(userDto);
+        verify(userLookupRepository, never()).existsByCpf(any());
+        verify(userLookupRepository, never()).existsByEmail(any());
+    }
+
+    @Test
+    @DisplayName("Verificação de existência não confia no filtro local, que não vê cadastros de outras instâncias")
+    public void testExistsByCpf_IgnoresLocalFilter() {
+        String cpf = "59632418042";
+        when(registeredUserFilter.definitelyAbsentCpf(cpf)).thenReturn(true);
+        when(userLookupRepository.existsByCpf(cpf)).thenReturn(true);
+        assertTrue(userService.existsByCpf(cpf));
+    }
+
+    @Test
+    @DisplayName("Registro bem-sucedido alimenta o filtro de cadastrados")
+    public void testRegisterUser_UpdatesFilter() {
+        UserDto userDto = new UserDto(null, "John", "59632418042", "john@example.com", "password", null);
+        UserEntity userEntity = new UserEntity("1", "John", "59632418042", "john@example.com", "encodedPassword", null);
+        when(userLookupRepository.existsByCpf(userDto.getCpf())).thenReturn(false);
+        when(passwordHasher.encode("password")).thenReturn("encodedPassword");
+        when(userMapper.toRegistrationEntity(userDto)).thenReturn(userEntity);
+        when(userRegistrationRepository.create(userEntity)).thenReturn(userEntity);
+        userService.registerUser(userDto);
+        verify(registeredUserFilter, times(1)).put("59632418042", "john@example.com");
+    }
+
+    @Test
+    @DisplayName("Propagar rejeição do pool de hashing sem encapsular")
+    public void testFindByEmail_HashingRejected() {
+        UserDto loginRequest = new UserDto(null, null, null, "john@example.com", "password", null);
+        UserEntity userEntity = new UserEntity(null, "John", "59632418042", "john@example.com", "encodedPassword", null);
+        when(userLookupRepository.findCredentialsByEmail(loginRequest.getEmail())).thenReturn(Optional.of(new UserCredentials("1", userEntity.getSenha())));
+        when(passwordHasher.matches(loginRequest.getSenha(), userEntity.getSenha()))
+            .thenThrow(new PasswordHashingRejectedException("Fila de hashing de senha cheia"));
+        assertThrows(PasswordHashingRejectedException.class, () -> userService.findByEmail(loginRequest));
     }
     @Test
     @DisplayName("Tratar exceção ao verificar existência por e-mail")
     public void testExistsByEmail_ExceptionHandling() {
         String email = "john@example.com";
-        when(userRepository.findByEmail(email)).thenThrow(new RuntimeException("Erro ao buscar usuário por e-mail"));
+        when(userLookupRepository.existsByEmail(email)).thenThrow(new RuntimeException("Erro ao buscar usuário por e-mail"));
         UserRegistrationException exception = assertThrows(UserRegistrationException.class, () -> {
             userService.existsByEmail(email);
         });
         assertEquals("Erro ao registrar e-mail: Erro ao buscar usuário por e-mail", exception.getMessage());
-        verify(userRepository, times(1)).findByEmail(email);
+        verify(userLookupRepository, times(1)).existsByEmail(email);
     }
     @Test
     @DisplayName("Tratar exceção ao buscar usuário por e-mail e senha")
@@ -244,8 +345,38 @@ public class UserServiceTest {
         });
         assertEquals("Erro ao buscar usuário por e-mail e senha: Erro ao buscar usuário por e-mail", exception.getMessage());
         verify(userRepository, times(1)).findByEmail(email);
-        verifyNoInteractions(passwordEncoder);
+        verifyNoInteractions(passwordHasher);
         verifyNoInteractions(userMapper);
     }
 
+    @Test
+    @DisplayName("Registrar usuário com e-mail já cadastrado")
+    public void testRegisterUser_DuplicateEmail() {
+        UserDto userDto = new UserDto(null, "John", "59632418042", "john@example.com", "password", null);
+        when(userLookupRepository.existsByCpf(userDto.getCpf())).thenReturn(false);
+        when(userLookupRepository.existsByEmail(userDto.getEmail())).thenReturn(true);
+        UserAlreadyExistsException exception = assertThrows(UserAlreadyExistsException.class, () -> userService.registerUser(userDto));
+        assertEquals(UserAlreadyExistsException.EMAIL, exception.getAttribute());
+        verify(passwordHasher, never()).encode(any());
+        verify(userRegistrationRepository, never()).create(any());
+        verify(userMetrics, times(1)).duplicateEmail();
+    }
+
+    @Test
+    @DisplayName("Conflito na transação de registro é propagado como usuário existente")
+    public void testRegisterUser_ConcurrentDuplicate() {
+        UserDto userDto = new UserDto(null, "John", "59632418042", "john@example.com", "password", null);
+        UserEntity userEntity = new UserEntity(null, "John", "59632418042", "john@example.com", "encodedPassword", null);
+        when(registeredUserFilter.definitelyAbsentCpf(userDto.getCpf())).thenReturn(true);
+        when(registeredUserFilter.definitelyAbsentEmail(userDto.getEmail())).thenReturn(true);
+        when(passwordHasher.encode("password")).thenReturn("encodedPassword");
+        when(userMapper.toRegistrationEntity(userDto)).thenReturn(userEntity);
+        when(userRegistrationRepository.create(userEntity))
+            .thenThrow(new UserAlreadyExistsException(UserAlreadyExistsException.CPF, "CPF já cadastrado"));
+        UserAlreadyExistsException exception = assertThrows(UserAlreadyExistsException.class, () -> userService.registerUser(userDto));
+        assertEquals("CPF já cadastrado", exception.getMessage());
+        verify(userLookupRepository, never()).existsByCpf(any());
+        verify(registeredUserFilter, never()).put(any(), any());
+        verify(userMetrics, times(1)).duplicateCpf();
+    }
 }